@@ -2,8 +2,10 @@ package com.soul.laptopkade;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class LaptopkadeApplication {
 
 	public static void main(String[] args) {
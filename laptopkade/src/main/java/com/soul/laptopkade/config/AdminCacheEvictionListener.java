@@ -0,0 +1,29 @@
+package com.soul.laptopkade.config;
+
+import com.soul.laptopkade.model.Admin;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA listener on {@link Admin} that evicts the admin user cache on every write.
+ * The whole cache is cleared rather than one username, so a rename cannot leave
+ * the old name authenticating until its TTL runs out.
+ */
+@Component
+public class AdminCacheEvictionListener {
+
+    private final AdminUserCache adminUserCache;
+
+    public AdminCacheEvictionListener(AdminUserCache adminUserCache) {
+        this.adminUserCache = adminUserCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onAdminChanged(Admin admin) {
+        adminUserCache.evictAll();
+    }
+}
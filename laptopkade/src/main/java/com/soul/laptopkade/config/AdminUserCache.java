@@ -0,0 +1,86 @@
+package com.soul.laptopkade.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TTL cache of admin {@link UserDetails} for the DaoAuthenticationProvider, so an
+ * admin authentication does not query the admins table every time.
+ * <p>
+ * Entries expire after {@code app.security.admin-cache-ttl-seconds} and are dropped
+ * as soon as any {@code Admin} row is written (see {@link AdminCacheEvictionListener}).
+ * Callers get a copy of the cached user, because Spring Security erases the password
+ * on the authenticated principal, and that must not wipe the cached entry.
+ */
+@Component
+public class AdminUserCache implements UserCache {
+
+    private final long ttlNanos;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public AdminUserCache(@Value("${app.security.admin-cache-ttl-seconds:300}") long ttlSeconds) {
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        Entry entry = entries.get(username);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (System.nanoTime() - entry.cachedAt() > ttlNanos) {
+            entries.remove(username, entry);
+            evictions.incrementAndGet();
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return User.withUserDetails(entry.user()).build();
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        entries.put(user.getUsername(), new Entry(User.withUserDetails(user).build(), System.nanoTime()));
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        if (entries.remove(username) != null) {
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Drop every entry; called whenever an admin is created, changed or deleted
+     */
+    public void evictAll() {
+        int size = entries.size();
+        entries.clear();
+        evictions.addAndGet(size);
+    }
+
+    public Stats getStats() {
+        long h = hits.get();
+        long m = misses.get();
+        double hitRatio = h + m == 0 ? 0 : (double) h / (h + m);
+        return new Stats(entries.size(), h, m, hitRatio, evictions.get());
+    }
+
+    public record Stats(int size, long hits, long misses, double hitRatio, long evictions) {
+    }
+
+    private record Entry(UserDetails user, long cachedAt) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.soul.laptopkade.config;
+
+import com.soul.laptopkade.model.Money;
+import org.springframework.format.Formatter;
+
+import java.util.Locale;
+
+/**
+ * Binds price form fields to {@link Money}; a malformed price becomes a field error
+ */
+public class MoneyFormatter implements Formatter<Money> {
+
+    @Override
+    public Money parse(String text, Locale locale) {
+        return Money.parse(text);
+    }
+
+    @Override
+    public String print(Money money, Locale locale) {
+        return money.toString();
+    }
+}
@@ -1,6 +1,9 @@
 package com.soul.laptopkade.config;
 
 import com.soul.laptopkade.repository.AdminRepository;
+import com.soul.shared.security.PasswordEncoderFactory;
+import com.soul.shared.security.PasswordHashingService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -11,7 +14,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 
@@ -20,9 +22,21 @@ import org.springframework.security.web.SecurityFilterChain;
 public class SecurityConfig {
 
     private final AdminRepository adminRepository;
+    private final AdminUserCache adminUserCache;
+    private final PasswordEncoder passwordEncoder;
 
-    public SecurityConfig(AdminRepository adminRepository) {
+    /**
+     * @param bcryptCost fixed BCrypt cost; 0 calibrates at startup against bcryptTargetMillis
+     */
+    public SecurityConfig(AdminRepository adminRepository,
+                          AdminUserCache adminUserCache,
+                          @Value("${app.auth.bcrypt-cost:0}") int bcryptCost,
+                          @Value("${app.auth.bcrypt-target-ms:100}") long bcryptTargetMillis,
+                          @Value("${app.auth.bcrypt-min-cost:10}") int bcryptMinCost,
+                          @Value("${app.auth.bcrypt-max-cost:14}") int bcryptMaxCost) {
         this.adminRepository = adminRepository;
+        this.adminUserCache = adminUserCache;
+        this.passwordEncoder = PasswordEncoderFactory.create(bcryptCost, bcryptTargetMillis, bcryptMinCost, bcryptMaxCost);
     }
 
     /**
@@ -40,21 +54,35 @@ public class SecurityConfig {
     }
 
     /**
-     * Password encoder using BCrypt for secure password storage
+     * Delegating password encoder; BCrypt at a cost calibrated for this machine
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return passwordEncoder;
+    }
+
+    /**
+     * Bounded pool for password hashing; overflow throws PasswordHashingService.OverloadedException
+     *
+     * @param threads pool size; 0 means one thread per available core
+     */
+    @Bean(destroyMethod = "shutdown")
+    public PasswordHashingService passwordHashingService(@Value("${app.auth.hash-threads:0}") int threads,
+                                                         @Value("${app.auth.hash-queue-capacity:64}") int queueCapacity,
+                                                         @Value("${app.auth.hash-timeout-ms:2000}") long timeoutMs) {
+        return new PasswordHashingService(passwordEncoder, threads, queueCapacity, timeoutMs);
     }
 
     /**
-     * Authentication provider that uses UserDetailsService and PasswordEncoder
+     * Authentication provider that uses UserDetailsService and PasswordEncoder,
+     * consulting the admin user cache before the database
      */
     @Bean
     public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(userDetailsService());
         provider.setPasswordEncoder(passwordEncoder());
+        provider.setUserCache(adminUserCache);
         return provider;
     }
 
@@ -73,7 +101,7 @@ public class SecurityConfig {
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
             .authorizeHttpRequests(auth -> auth
-                    .requestMatchers("/login", "/", "/home", "/search", "/css/**", "/images/**", "/js/**", "/cart", "/cart/**", "/checkout", "/register", "/user-login").permitAll()
+                    .requestMatchers("/login", "/", "/home", "/search", "/css/**", "/images/**", "/js/**", "/cart", "/cart/**", "/checkout", "/orders/**", "/register", "/user-login").permitAll()
                     .requestMatchers("/laptops/new", "/laptops", "/admin/**").hasRole("ADMIN")
                     .anyRequest().permitAll()
             )
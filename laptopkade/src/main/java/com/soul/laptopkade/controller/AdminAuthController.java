@@ -0,0 +1,39 @@
+package com.soul.laptopkade.controller;
+
+import com.soul.laptopkade.config.AdminUserCache;
+import com.soul.shared.security.PasswordHashingService;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+@Controller
+@RequestMapping("/admin/auth")
+public class AdminAuthController {
+
+    private final PasswordHashingService passwordHashingService;
+    private final AdminUserCache adminUserCache;
+
+    public AdminAuthController(PasswordHashingService passwordHashingService, AdminUserCache adminUserCache) {
+        this.passwordHashingService = passwordHashingService;
+        this.adminUserCache = adminUserCache;
+    }
+
+    /**
+     * Password hashing pool queue depth, rejections and latency
+     */
+    @GetMapping("/hashing-stats")
+    @ResponseBody
+    public PasswordHashingService.Stats hashingStats() {
+        return passwordHashingService.getStats();
+    }
+
+    /**
+     * Admin user cache size, hit ratio and evictions
+     */
+    @GetMapping("/user-cache-stats")
+    @ResponseBody
+    public AdminUserCache.Stats userCacheStats() {
+        return adminUserCache.getStats();
+    }
+}
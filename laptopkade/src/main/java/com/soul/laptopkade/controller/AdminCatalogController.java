@@ -0,0 +1,27 @@
+package com.soul.laptopkade.controller;
+
+import com.soul.laptopkade.service.CatalogCache;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+@Controller
+@RequestMapping("/admin/catalog")
+public class AdminCatalogController {
+
+    private final CatalogCache catalogCache;
+
+    public AdminCatalogController(CatalogCache catalogCache) {
+        this.catalogCache = catalogCache;
+    }
+
+    /**
+     * Catalog cache version and hit/miss/rebuild counters
+     */
+    @GetMapping("/stats")
+    @ResponseBody
+    public CatalogCache.Stats cacheStats() {
+        return catalogCache.getStats();
+    }
+}
@@ -2,15 +2,17 @@ package com.soul.laptopkade.controller;
 
 import com.soul.laptopkade.model.Order;
 import com.soul.laptopkade.repository.OrderRepository;
-import org.springframework.data.domain.Sort;
+import com.soul.laptopkade.service.OrderIntakeService;
+import com.soul.laptopkade.service.OrderListingService;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 
-import java.util.List;
 import java.util.Optional;
 
 @Controller
@@ -18,18 +20,44 @@ import java.util.Optional;
 public class AdminOrderController {
 
     private final OrderRepository orderRepository;
+    private final OrderIntakeService orderIntakeService;
+    private final OrderListingService orderListingService;
 
-    public AdminOrderController(OrderRepository orderRepository) {
+    public AdminOrderController(OrderRepository orderRepository, OrderIntakeService orderIntakeService,
+                                OrderListingService orderListingService) {
         this.orderRepository = orderRepository;
+        this.orderIntakeService = orderIntakeService;
+        this.orderListingService = orderListingService;
     }
 
+    /**
+     * Newest orders first, one keyset page at a time; {@code after} is the cursor of the previous page
+     */
     @GetMapping
-    public String listOrders(Model model) {
-        List<Order> orders = orderRepository.findAll(Sort.by(Sort.Direction.DESC, "createdAt"));
-        model.addAttribute("orders", orders);
+    public String listOrders(@RequestParam(value = "after", required = false) String after,
+                             @RequestParam(value = "size", required = false) Integer size,
+                             Model model) {
+        OrderListingService.OrderPage page;
+        try {
+            page = orderListingService.page(after, size);
+        } catch (IllegalArgumentException e) {
+            return "redirect:/admin/orders";
+        }
+        model.addAttribute("orders", page.rows());
+        model.addAttribute("page", page);
+        model.addAttribute("firstPage", after == null || after.isBlank());
         return "admin/orders";
     }
 
+    /**
+     * Order intake queue depth, throughput, duplicates and rejections
+     */
+    @GetMapping("/intake-stats")
+    @ResponseBody
+    public OrderIntakeService.Stats intakeStats() {
+        return orderIntakeService.getStats();
+    }
+
     @GetMapping("/{id}")
     public String viewOrder(@PathVariable Long id, Model model) {
         Optional<Order> opt = orderRepository.findById(id);
@@ -2,10 +2,13 @@ package com.soul.laptopkade.controller;
 
 import com.soul.laptopkade.model.User;
 import com.soul.laptopkade.repository.UserRepository;
+import com.soul.shared.security.PasswordHashingService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,12 +19,12 @@ import org.springframework.web.bind.annotation.RequestParam;
 public class AuthController {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
 
-    public AuthController(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public AuthController(UserRepository userRepository, PasswordHashingService passwordHashingService) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
     }
 
     @GetMapping("/login")
@@ -39,6 +42,7 @@ public class AuthController {
                                @RequestParam("email") String email,
                                @RequestParam("password") String password,
                                @RequestParam(value = "phone", defaultValue = "") String phone,
+                               HttpServletResponse response,
                                Model model) {
         if (userRepository.findByUsername(username).isPresent()) {
             model.addAttribute("error", "Username already taken");
@@ -48,7 +52,13 @@ public class AuthController {
             model.addAttribute("error", "Email already registered");
             return "register";
         }
-        User user = new User(username, email, passwordEncoder.encode(password), phone, "", "", "");
+        String encodedPassword;
+        try {
+            encodedPassword = passwordHashingService.encode(password);
+        } catch (PasswordHashingService.OverloadedException e) {
+            return rejectBusy(response, model, "register");
+        }
+        User user = new User(username, email, encodedPassword, phone, "", "", "");
         userRepository.save(user);
         logger.info("USER_REGISTRATION: New user registered: username='{}', email='{}'", username, email);
         return "redirect:/user-login";
@@ -63,13 +73,29 @@ public class AuthController {
     public String authenticateUser(@RequestParam("username") String username,
                                    @RequestParam("password") String password,
                                    HttpSession session,
+                                   HttpServletResponse response,
                                    Model model) {
         var userOpt = userRepository.findByUsername(username);
-        if (userOpt.isEmpty() || !passwordEncoder.matches(password, userOpt.get().getPassword())) {
+        boolean valid;
+        try {
+            valid = userOpt.isPresent() && passwordHashingService.matches(password, userOpt.get().getPassword());
+        } catch (PasswordHashingService.OverloadedException e) {
+            return rejectBusy(response, model, "user-login");
+        }
+        if (!valid) {
             model.addAttribute("error", "Invalid username or password");
             return "user-login";
         }
         User user = userOpt.get();
+        // Move the stored hash to the current encoder cost while we have the raw password
+        if (passwordHashingService.needsRehash(user.getPassword())) {
+            try {
+                user.setPassword(passwordHashingService.encode(password));
+                user = userRepository.save(user);
+            } catch (PasswordHashingService.OverloadedException e) {
+                // the pool is saturated; leave the old hash and retry on a later login
+            }
+        }
         session.setAttribute("loggedInUser", user);
         logger.info("USER_LOGIN: User '{}' logged in successfully", username);
         return "redirect:/home";
@@ -84,5 +110,14 @@ public class AuthController {
         session.removeAttribute("loggedInUser");
         return "redirect:/home";
     }
-}
 
+    /**
+     * Re-render the form with a 429 when the password hashing pool is saturated
+     */
+    private String rejectBusy(HttpServletResponse response, Model model, String view) {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        model.addAttribute("error", "The server is busy, please try again in a moment");
+        return view;
+    }
+}
@@ -1,101 +1,115 @@
 package com.soul.laptopkade.controller;
 
 import com.soul.laptopkade.model.CartItem;
-import com.soul.laptopkade.model.Laptop;
+import com.soul.laptopkade.model.Money;
 import com.soul.laptopkade.model.Order;
 import com.soul.laptopkade.model.OrderItem;
 import com.soul.laptopkade.model.User;
-import com.soul.laptopkade.repository.LaptopRepository;
-import com.soul.laptopkade.repository.OrderRepository;
-import com.soul.laptopkade.repository.UserRepository;
+import com.soul.laptopkade.service.CartService;
+import com.soul.laptopkade.service.CartSummary;
+import com.soul.laptopkade.service.OrderIntakeService;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Optional;
+import java.util.List;
+import java.util.UUID;
 
 @Controller
 public class CartController {
 
-    private final LaptopRepository laptopRepository;
-    private final OrderRepository orderRepository;
-    private final UserRepository userRepository;
+    private final CartService cartService;
+    private final OrderIntakeService orderIntakeService;
     private static final Logger logger = LoggerFactory.getLogger(CartController.class);
 
-    public CartController(LaptopRepository laptopRepository, OrderRepository orderRepository, UserRepository userRepository) {
-        this.laptopRepository = laptopRepository;
-        this.orderRepository = orderRepository;
-        this.userRepository = userRepository;
-    }
-
-    @SuppressWarnings("unchecked")
-    private Map<Long, CartItem> getCart(HttpSession session) {
-        Object o = session.getAttribute("cart");
-        if (o == null) {
-            Map<Long, CartItem> cart = new HashMap<>();
-            session.setAttribute("cart", cart);
-            return cart;
-        }
-        return (Map<Long, CartItem>) o;
+    public CartController(CartService cartService, OrderIntakeService orderIntakeService) {
+        this.cartService = cartService;
+        this.orderIntakeService = orderIntakeService;
     }
 
+    /**
+     * Add to cart. HTMX requests get back only the updated header badge (swapped
+     * out-of-band) instead of a redirect that re-renders the whole catalog page.
+     */
     @PostMapping("/cart/add")
     public String addToCart(@RequestParam("laptopId") Long laptopId,
                             @RequestParam(value = "quantity", defaultValue = "1") int quantity,
-                            HttpServletRequest request) {
-        HttpSession session = request.getSession(true);
-        Optional<Laptop> opt = laptopRepository.findById(laptopId);
-        if (opt.isEmpty()) {
+                            HttpServletRequest request,
+                            HttpServletResponse response,
+                            Model model) {
+        String cartId = CartCookie.resolve(request, response);
+        boolean added;
+        try {
+            added = cartService.add(cartId, laptopId, quantity);
+        } catch (IllegalArgumentException e) {
+            logger.warn("ADD_TO_CART rejected: {} (laptop id {}, quantity {})", e.getMessage(), laptopId, quantity);
+            return addFailed(request, response, model, cartId, HttpServletResponse.SC_BAD_REQUEST);
+        }
+        if (!added) {
             logger.warn("ADD_TO_CART failed: Laptop id {} not found", laptopId);
-            return "redirect:/home";
+            return addFailed(request, response, model, cartId, HttpServletResponse.SC_NOT_FOUND);
         }
-        Laptop laptop = opt.get();
-        Map<Long, CartItem> cart = getCart(session);
-        CartItem item = cart.get(laptopId);
-        if (item == null) {
-            item = new CartItem(laptop.getId(), laptop.getName(), laptop.getBrand(), laptop.getPrice(), laptop.getImageUrl(), quantity);
-            cart.put(laptopId, item);
-        } else {
-            item.setQuantity(item.getQuantity() + quantity);
+        logger.info("CART operation: Added laptop id {} qty {} to cart (cartId={})", laptopId, quantity, cartId);
+        if (isHtmx(request)) {
+            return fragment(model, cartId, "cart-fragments :: badge");
         }
-        session.setAttribute("cart", cart);
-        logger.info("CART operation: Added laptop id {} qty {} to cart (sessionId={})", laptopId, quantity, session.getId());
         String referer = request.getHeader("Referer");
         return "redirect:" + (referer != null ? referer : "/home");
     }
 
+    /**
+     * Remove from cart. HTMX requests get back an empty body for the removed line
+     * plus the summary card out-of-band, instead of a redirect to the cart page.
+     */
     @PostMapping("/cart/remove")
-    public String removeFromCart(@RequestParam("laptopId") Long laptopId, HttpServletRequest request) {
-        HttpSession session = request.getSession(false);
-        if (session != null) {
-            Map<Long, CartItem> cart = getCart(session);
-            if (cart.containsKey(laptopId)) {
-                cart.remove(laptopId);
-                session.setAttribute("cart", cart);
-                logger.info("CART operation: Removed laptop id {} from cart (sessionId={})", laptopId, session.getId());
-            }
+    public String removeFromCart(@RequestParam("laptopId") Long laptopId, HttpServletRequest request, Model model) {
+        String cartId = CartCookie.read(request);
+        if (cartId != null) {
+            cartService.remove(cartId, laptopId);
+            logger.info("CART operation: Removed laptop id {} from cart (cartId={})", laptopId, cartId);
+        }
+        if (isHtmx(request)) {
+            return fragment(model, cartId, "cart-fragments :: removed");
         }
         String referer = request.getHeader("Referer");
         return "redirect:" + (referer != null ? referer : "/cart");
     }
 
     @GetMapping("/cart")
-    public String viewCart(HttpSession session, Model model) {
-        Map<Long, CartItem> cart = getCart(session);
-        double total = cart.values().stream().mapToDouble(CartItem::getTotal).sum();
-        model.addAttribute("items", cart.values());
-        model.addAttribute("total", total);
+    public String viewCart(HttpServletRequest request, Model model) {
+        String cartId = CartCookie.read(request);
+        model.addAttribute("items", cartService.getItems(cartId));
+        model.addAttribute("summary", cartService.getSummary(cartId));
         return "cart";
     }
 
+    /**
+     * Header cart badge fragment, for HTMX refreshes
+     */
+    @GetMapping("/cart/badge")
+    public String cartBadge(HttpServletRequest request, Model model) {
+        model.addAttribute("summary", cartService.getSummary(CartCookie.read(request)));
+        return "cart-fragments :: badge";
+    }
+
+    /**
+     * Order summary card fragment (item count and subtotal), for HTMX refreshes
+     */
+    @GetMapping("/cart/summary")
+    public String cartSummary(HttpServletRequest request, Model model) {
+        model.addAttribute("summary", cartService.getSummary(CartCookie.read(request)));
+        return "cart-fragments :: summary";
+    }
+
     @PostMapping("/cart/checkout")
     public String checkout(HttpSession session) {
         // kept for compatibility: redirect to checkout form
@@ -103,26 +117,39 @@ public class CartController {
     }
 
     @GetMapping("/checkout")
-    public String showCheckoutForm(HttpSession session, Model model) {
-        Map<Long, CartItem> cart = getCart(session);
-        double total = cart.values().stream().mapToDouble(CartItem::getTotal).sum();
-        model.addAttribute("items", cart.values());
-        model.addAttribute("total", total);
+    public String showCheckoutForm(HttpServletRequest request, Model model) {
+        populateCheckout(CartCookie.read(request), UUID.randomUUID().toString(), model);
         return "checkout";
     }
 
+    /**
+     * Validate the cart and hand the order to the intake, which takes the ordered lines
+     * out of the cart and stores the order as NEW; it is accepted asynchronously and
+     * the customer is sent to a status page that polls for it.
+     */
     @PostMapping("/checkout")
     public String processCheckout(@RequestParam("fullName") String fullName,
                                   @RequestParam("phone") String phone,
                                   @RequestParam("address") String address,
                                   @RequestParam("city") String city,
                                   @RequestParam("postalCode") String postalCode,
-                                  HttpSession session) {
-        Map<Long, CartItem> cart = getCart(session);
-        if (cart.isEmpty()) {
-            return "redirect:/cart";
+                                  @RequestParam(value = "idempotencyKey", required = false) String idempotencyKey,
+                                  HttpServletRequest request,
+                                  HttpServletResponse response,
+                                  HttpSession session,
+                                  Model model) {
+        String key = normalizeKey(idempotencyKey);
+        if (key == null) {
+            // forms rendered before keys existed still check out, just without replay protection
+            key = UUID.randomUUID().toString();
+        }
+        String cartId = CartCookie.read(request);
+        List<CartItem> items = cartService.getItems(cartId);
+        if (items.isEmpty()) {
+            // an emptied cart after a resubmit means the first submit went through
+            return orderIntakeService.status(key) != null ? "redirect:/orders/" + key : "redirect:/cart";
         }
-        double total = cart.values().stream().mapToDouble(CartItem::getTotal).sum();
+        Money total = cartService.total(items);
 
         // Build order entity
         Order order = new Order();
@@ -131,32 +158,89 @@ public class CartController {
         order.setAddress(address);
         order.setCity(city);
         order.setPostalCode(postalCode);
-        order.setTotal(total);
-        order.setStatus("NEW");
+        order.setTotal(total.toMajor());
 
-        Object sessUser = session.getAttribute("loggedInUser");
-        if (sessUser instanceof User) {
-            User u = (User) sessUser;
-            userRepository.findById(u.getId()).ifPresent(order::setUser);
-        }
-
-        for (CartItem ci : cart.values()) {
+        for (CartItem ci : items) {
             OrderItem oi = new OrderItem();
             oi.setLaptopId(ci.getLaptopId());
             oi.setName(ci.getName());
             oi.setBrand(ci.getBrand());
-            oi.setUnitPrice(ci.getNumericPrice());
+            oi.setUnitPrice(ci.getPrice());
             oi.setQuantity(ci.getQuantity());
             order.addItem(oi);
         }
 
-        orderRepository.save(order);
+        Long userId = session.getAttribute("loggedInUser") instanceof User u ? u.getId() : null;
+        OrderIntakeService.Submission submission;
+        try {
+            submission = orderIntakeService.submit(key, order, userId, cartId);
+        } catch (OrderIntakeService.PlacementFailedException e) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            populateCheckout(cartId, key, model);
+            model.addAttribute("error", e.getMessage());
+            return "checkout";
+        }
+        switch (submission) {
+            case QUEUED -> logger.info("CHECKOUT stored order key={} items={} total={} (cartId={})", key, items.size(), total, cartId);
+            case DUPLICATE -> logger.info("CHECKOUT duplicate submission ignored key={} (cartId={})", key, cartId);
+            case CART_CHANGED -> {
+                // another checkout took these lines, or the cart was edited since it was read
+                logger.info("CHECKOUT cart changed during checkout key={} (cartId={})", key, cartId);
+                return orderIntakeService.status(key) != null ? "redirect:/orders/" + key : "redirect:/cart";
+            }
+        }
+        return "redirect:/orders/" + key;
+    }
+
+    /**
+     * Order status by idempotency key; HTMX polls get only the status card
+     */
+    @GetMapping("/orders/{key}")
+    public String orderStatus(@PathVariable("key") String key, HttpServletRequest request, Model model) {
+        String normalized = normalizeKey(key);
+        if (normalized == null) {
+            return "redirect:/home";
+        }
+        model.addAttribute("key", normalized);
+        model.addAttribute("status", orderIntakeService.status(normalized));
+        return isHtmx(request) ? "order-status :: status" : "order-status";
+    }
+
+    private void populateCheckout(String cartId, String idempotencyKey, Model model) {
+        CartSummary summary = cartService.getSummary(cartId);
+        model.addAttribute("items", cartService.getItems(cartId));
+        model.addAttribute("summary", summary);
+        model.addAttribute("total", summary.subtotal());
+        model.addAttribute("idempotencyKey", idempotencyKey);
+    }
 
-        logger.info("CHECKOUT persisted order id={} items={} total={} (sessionId={})", order.getId(), order.getItems().size(), order.getTotal(), session.getId());
+    private static String normalizeKey(String key) {
+        if (key == null || key.isBlank()) {
+            return null;
+        }
+        try {
+            return UUID.fromString(key.trim()).toString();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
 
-        // Clear cart
-        cart.clear();
-        session.setAttribute("cart", cart);
+    private String addFailed(HttpServletRequest request, HttpServletResponse response, Model model,
+                             String cartId, int status) {
+        if (isHtmx(request)) {
+            response.setStatus(status);
+            return fragment(model, cartId, "cart-fragments :: badge");
+        }
         return "redirect:/home";
     }
+
+    private static boolean isHtmx(HttpServletRequest request) {
+        return "true".equals(request.getHeader("HX-Request"));
+    }
+
+    private String fragment(Model model, String cartId, String view) {
+        model.addAttribute("summary", cartService.getSummary(cartId));
+        model.addAttribute("oob", "true");
+        return view;
+    }
 }
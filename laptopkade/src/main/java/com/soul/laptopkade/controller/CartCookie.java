@@ -0,0 +1,56 @@
+package com.soul.laptopkade.controller;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.util.UUID;
+
+/**
+ * The cart is identified by a random id in a long-lived cookie instead of the
+ * HTTP session, so any node can serve it from the shared cart store.
+ */
+final class CartCookie {
+
+    static final String NAME = "cart_id";
+    private static final int MAX_AGE_SECONDS = 30 * 24 * 60 * 60;
+
+    private CartCookie() {
+    }
+
+    /**
+     * Cart id from the request, or null if the browser has none (or a malformed one)
+     */
+    static String read(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (NAME.equals(cookie.getName())) {
+                try {
+                    return UUID.fromString(cookie.getValue()).toString();
+                } catch (IllegalArgumentException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Cart id from the request, issuing a new one if needed
+     */
+    static String resolve(HttpServletRequest request, HttpServletResponse response) {
+        String cartId = read(request);
+        if (cartId == null) {
+            cartId = UUID.randomUUID().toString();
+            Cookie cookie = new Cookie(NAME, cartId);
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge(MAX_AGE_SECONDS);
+            response.addCookie(cookie);
+        }
+        return cartId;
+    }
+}
@@ -1,33 +1,66 @@
 package com.soul.laptopkade.controller;
 
 import com.soul.laptopkade.model.Laptop;
+import com.soul.laptopkade.model.User;
 import com.soul.laptopkade.repository.LaptopRepository;
+import com.soul.laptopkade.service.CartService;
+import com.soul.laptopkade.service.CartSummary;
+import com.soul.laptopkade.service.CatalogCache;
+import com.soul.laptopkade.service.CatalogSearchIndex;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
 import java.util.List;
 
 @Controller
 public class HomeController {
 
     private static final Logger logger = LoggerFactory.getLogger(HomeController.class);
+    private static final int MAX_RANKED_RESULTS = 50;
     private final LaptopRepository laptopRepository;
+    private final CatalogCache catalogCache;
+    private final CatalogSearchIndex searchIndex;
+    private final CartService cartService;
 
-    public HomeController(LaptopRepository laptopRepository) {
+    public HomeController(LaptopRepository laptopRepository, CatalogCache catalogCache, CatalogSearchIndex searchIndex,
+                          CartService cartService) {
         this.laptopRepository = laptopRepository;
+        this.catalogCache = catalogCache;
+        this.searchIndex = searchIndex;
+        this.cartService = cartService;
     }
 
+    /**
+     * Storefront. Answers If-None-Match with 304 before the page is rendered; the
+     * ETag covers everything the page shows, so it is per visitor.
+     */
     @GetMapping({"/", "/home"})
-    public String home(Model model) {
+    public String home(HttpServletRequest request, HttpServletResponse response, WebRequest webRequest, Model model) {
         try {
-            logger.info("READ operation: Fetching all laptops from database");
-        List<Laptop> laptops = laptopRepository.findAll();
+            logger.info("READ operation: Fetching all laptops from catalog cache");
+        CatalogCache.Snapshot catalog = catalogCache.getSnapshot();
+        CartSummary summary = cartService.getSummary(CartCookie.read(request));
+        // set before Spring Security would add no-store, so browsers keep the page and revalidate it
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (webRequest.checkNotModified(homeETag(catalog, summary, request))) {
+            return null;
+        }
+        List<Laptop> laptops = catalog.laptops();
             logger.info("READ operation successful: Retrieved {} laptops", laptops.size());
         model.addAttribute("laptops", laptops);
+        model.addAttribute("summary", summary);
         return "home"; // maps to src/main/resources/templates/home.html
         } catch (Exception e) {
             logger.error("READ operation failed: Error fetching laptops", e);
@@ -36,14 +69,22 @@ public class HomeController {
     }
 
     @GetMapping("/search")
-    public String search(@RequestParam(value = "query", defaultValue = "") String query, Model model) {
+    public String search(@RequestParam(value = "query", defaultValue = "") String query,
+                         @RequestParam(value = "mode", defaultValue = "ranked") String mode,
+                         Model model) {
         try {
-            logger.info("SEARCH operation: Searching for laptops with query: '{}'", query);
+            logger.info("SEARCH operation: Searching for laptops with query: '{}' (mode={})", query, mode);
             List<Laptop> results;
             
             if (query.isEmpty()) {
-                results = laptopRepository.findAll();
+                results = catalogCache.getLaptops();
+            } else if (searchIndex.isReady() && "exact".equals(mode)) {
+                results = searchIndex.search(query);
+            } else if (searchIndex.isReady()) {
+                // typo-tolerant, best matches first
+                results = searchIndex.rank(query, MAX_RANKED_RESULTS);
             } else {
+                // index still cold (application starting up)
                 results = laptopRepository.searchByNameOrBrand(query);
             }
             
@@ -57,4 +98,18 @@ public class HomeController {
         }
     }
 
+    /**
+     * Catalog snapshot (its build time keeps tags unique across restarts), cart totals
+     * and who is logged in, hashed
+     */
+    private static String homeETag(CatalogCache.Snapshot catalog, CartSummary summary, HttpServletRequest request) {
+        Principal admin = request.getUserPrincipal();
+        HttpSession session = request.getSession(false);
+        String customer = session != null && session.getAttribute("loggedInUser") instanceof User u ? u.getUsername() : "";
+        String state = catalog.version() + "|" + catalog.builtAt().toEpochMilli()
+                + "|" + summary.lineCount() + "|" + summary.itemCount()
+                + "|" + summary.subtotal().minorUnits() + summary.subtotal().currency()
+                + "|" + (admin != null ? admin.getName() : "") + "|" + customer;
+        return "\"" + DigestUtils.md5DigestAsHex(state.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
 }
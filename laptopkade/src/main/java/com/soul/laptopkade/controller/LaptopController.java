@@ -2,8 +2,11 @@ package com.soul.laptopkade.controller;
 
 import com.soul.laptopkade.model.Laptop;
 import com.soul.laptopkade.repository.LaptopRepository;
+import com.soul.laptopkade.service.CatalogCache;
+import com.soul.laptopkade.service.CatalogSearchIndex;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -18,9 +21,13 @@ import java.nio.file.Path;
 public class LaptopController {
 
     private final LaptopRepository laptopRepository;
+    private final CatalogCache catalogCache;
+    private final CatalogSearchIndex searchIndex;
 
-    public LaptopController(LaptopRepository laptopRepository) {
+    public LaptopController(LaptopRepository laptopRepository, CatalogCache catalogCache, CatalogSearchIndex searchIndex) {
         this.laptopRepository = laptopRepository;
+        this.catalogCache = catalogCache;
+        this.searchIndex = searchIndex;
     }
 
     @GetMapping("/laptops/new")
@@ -31,7 +38,14 @@ public class LaptopController {
 
     @PostMapping("/laptops")
     public String createLaptop(@ModelAttribute Laptop laptop,
+                               BindingResult bindingResult,
                                @RequestParam(value = "imageFile", required = false) MultipartFile imageFile) {
+        if (bindingResult.hasErrors() || laptop.getPrice() == null) {
+            if (!bindingResult.hasFieldErrors("price")) {
+                bindingResult.rejectValue("price", "required");
+            }
+            return "add";
+        }
         // handle file upload (optional)
         if (imageFile != null && !imageFile.isEmpty()) {
             try {
@@ -53,6 +67,8 @@ public class LaptopController {
         }
 
         laptopRepository.save(laptop);
+        catalogCache.rebuild();
+        searchIndex.add(laptop);
         return "redirect:/home";
     }
 
@@ -1,7 +1,9 @@
 package com.soul.laptopkade.model;
 
+import com.soul.laptopkade.config.AdminCacheEvictionListener;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -9,6 +11,7 @@ import jakarta.persistence.Table;
 
 @Entity
 @Table(name = "admins")
+@EntityListeners(AdminCacheEvictionListener.class)
 public class Admin {
 
     @Id
@@ -1,19 +1,17 @@
 package com.soul.laptopkade.model;
 
-import java.math.BigDecimal;
-
 public class CartItem {
     private Long laptopId;
     private String name;
     private String brand;
-    private String price;
+    private Money price;
     private String imageUrl;
     private int quantity;
 
     public CartItem() {
     }
 
-    public CartItem(Long laptopId, String name, String brand, String price, String imageUrl, int quantity) {
+    public CartItem(Long laptopId, String name, String brand, Money price, String imageUrl, int quantity) {
         this.laptopId = laptopId;
         this.name = name;
         this.brand = brand;
@@ -46,11 +44,11 @@ public class CartItem {
         this.brand = brand;
     }
 
-    public String getPrice() {
+    public Money getPrice() {
         return price;
     }
 
-    public void setPrice(String price) {
+    public void setPrice(Money price) {
         this.price = price;
     }
 
@@ -70,17 +68,14 @@ public class CartItem {
         this.quantity = quantity;
     }
 
-    public double getNumericPrice() {
-        if (price == null) return 0.0;
-        String cleaned = price.replaceAll("[^0-9.\\-]","");
-        try {
-            return Double.parseDouble(cleaned);
-        } catch (Exception e) {
-            return 0.0;
-        }
+    /**
+     * Line total in minor units; no parsing or allocation
+     */
+    public long getTotalMinor() {
+        return price.minorUnits() * quantity;
     }
 
-    public double getTotal() {
-        return getNumericPrice() * quantity;
+    public Money getTotal() {
+        return price.times(quantity);
     }
 }
@@ -1,10 +1,13 @@
 package com.soul.laptopkade.model;
 
+import jakarta.persistence.AttributeOverride;
 import jakarta.persistence.Column;
+import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 @Entity
@@ -12,12 +15,18 @@ import jakarta.persistence.Table;
 public class Laptop {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "laptops_seq")
+    @SequenceGenerator(name = "laptops_seq", sequenceName = "laptops_seq", allocationSize = 50)
     private Long id;
 
     private String name;
     private String brand;
-    private String price;
+
+    // parsed once on write; see Money.parse
+    @Embedded
+    @AttributeOverride(name = "minorUnits", column = @Column(name = "price_minor"))
+    @AttributeOverride(name = "currency", column = @Column(name = "price_currency", length = 3))
+    private Money price;
 
     @Column(name = "image_url")
     private String imageUrl;
@@ -28,7 +37,7 @@ public class Laptop {
     public Laptop(String name, String brand, String price, String imageUrl) {
         this.name = name;
         this.brand = brand;
-        this.price = price;
+        this.price = Money.parse(price);
         this.imageUrl = imageUrl;
     }
 
@@ -56,11 +65,11 @@ public class Laptop {
         this.brand = brand;
     }
 
-    public String getPrice() {
+    public Money getPrice() {
         return price;
     }
 
-    public void setPrice(String price) {
+    public void setPrice(Money price) {
         this.price = price;
     }
 
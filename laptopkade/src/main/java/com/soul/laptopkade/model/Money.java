@@ -0,0 +1,118 @@
+package com.soul.laptopkade.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Locale;
+
+/**
+ * An amount of money as whole minor units (cents) plus an ISO 4217 currency code.
+ * Prices are parsed into this once when they are written, so totals are plain
+ * {@code long} arithmetic; {@link #toString()} gives the display form ("$1,199").
+ */
+@Embeddable
+public record Money(
+        @Column(name = "minor_units") long minorUnits,
+        @Column(name = "currency", length = 3) String currency) {
+
+    public static final String DEFAULT_CURRENCY = "USD";
+    private static final int MINOR_DIGITS = 2;
+
+    public Money {
+        if (currency == null || currency.length() != 3) {
+            throw new IllegalArgumentException("Currency must be an ISO 4217 code");
+        }
+    }
+
+    public static Money of(long minorUnits, String currency) {
+        return new Money(minorUnits, currency);
+    }
+
+    /**
+     * Parse a price as typed by an admin or stored by older versions, e.g. "$999",
+     * "1,199.50" or "USD 849". Commas are thousands separators; without a symbol or
+     * code the currency is {@link #DEFAULT_CURRENCY}.
+     */
+    public static Money parse(String text) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("Price is required");
+        }
+        String value = text.trim();
+        String currency = DEFAULT_CURRENCY;
+        for (Symbol symbol : Symbol.values()) {
+            if (value.startsWith(symbol.text) || value.endsWith(symbol.text)) {
+                currency = symbol.code;
+                value = value.startsWith(symbol.text)
+                        ? value.substring(symbol.text.length())
+                        : value.substring(0, value.length() - symbol.text.length());
+                break;
+            }
+        }
+        if (value.length() > 3 && Character.isLetter(value.charAt(0))) {
+            String code = value.substring(0, 3);
+            if (code.chars().allMatch(Character::isLetter)) {
+                currency = code.toUpperCase(Locale.ROOT);
+                value = value.substring(3);
+            }
+        }
+        value = value.replace(",", "").trim();
+        try {
+            BigDecimal amount = new BigDecimal(value);
+            if (amount.signum() < 0) {
+                throw new IllegalArgumentException("Price cannot be negative: " + text);
+            }
+            return new Money(amount.setScale(MINOR_DIGITS, RoundingMode.HALF_UP).unscaledValue().longValueExact(), currency);
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException("Not a valid price: " + text);
+        }
+    }
+
+    public Money times(int quantity) {
+        return new Money(Math.multiplyExact(minorUnits, quantity), currency);
+    }
+
+    public Money plus(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Cannot add " + other.currency + " to " + currency);
+        }
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    /**
+     * Amount in major units (dollars), for legacy double columns
+     */
+    public double toMajor() {
+        return BigDecimal.valueOf(minorUnits, MINOR_DIGITS).doubleValue();
+    }
+
+    @Override
+    public String toString() {
+        BigDecimal major = BigDecimal.valueOf(minorUnits, MINOR_DIGITS);
+        String amount = minorUnits % 100 == 0
+                ? String.format(Locale.ROOT, "%,d", minorUnits / 100)
+                : String.format(Locale.ROOT, "%,.2f", major);
+        for (Symbol symbol : Symbol.values()) {
+            if (symbol.code.equals(currency)) {
+                return symbol.text + amount;
+            }
+        }
+        return currency + " " + amount;
+    }
+
+    private enum Symbol {
+        DOLLAR("$", "USD"),
+        EURO("\u20AC", "EUR"),
+        POUND("\u00A3", "GBP"),
+        TAKA("\u09F3", "BDT");
+
+        private final String text;
+        private final String code;
+
+        Symbol(String text, String code) {
+            this.text = text;
+            this.code = code;
+        }
+    }
+}
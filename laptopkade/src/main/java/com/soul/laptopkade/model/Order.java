@@ -7,20 +7,34 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_idempotency_key", columnList = "idempotency_key", unique = true),
+        // keyset order of the admin order list; not covering, each listed row is then read from the table
+        @Index(name = "idx_orders_created_at", columnList = "created_at, id"),
+        // recovery sweep for orders left NEW
+        @Index(name = "idx_orders_status_created_at", columnList = "status, created_at")
+})
 public class Order {
 
+    /** Stored at checkout, waiting for an intake worker */
+    public static final String NEW = "NEW";
+    /** Confirmed by an intake worker */
+    public static final String ACCEPTED = "ACCEPTED";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     private String fullName;
@@ -33,6 +47,10 @@ public class Order {
 
     private String status;
 
+    /** Token from the checkout form; a resubmitted form maps to the same order */
+    @Column(name = "idempotency_key", length = 36)
+    private String idempotencyKey;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt = LocalDateTime.now();
 
@@ -112,6 +130,14 @@ public class Order {
         this.status = status;
     }
 
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
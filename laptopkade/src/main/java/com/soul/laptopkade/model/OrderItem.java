@@ -1,6 +1,8 @@
 package com.soul.laptopkade.model;
 
+import jakarta.persistence.AttributeOverride;
 import jakarta.persistence.Column;
+import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
@@ -8,6 +10,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 @Entity
@@ -15,7 +18,8 @@ import jakarta.persistence.Table;
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -26,8 +30,10 @@ public class OrderItem {
     private String name;
     private String brand;
 
-    @Column(name = "unit_price")
-    private double unitPrice;
+    @Embedded
+    @AttributeOverride(name = "minorUnits", column = @Column(name = "unit_price_minor"))
+    @AttributeOverride(name = "currency", column = @Column(name = "unit_price_currency", length = 3))
+    private Money unitPrice;
 
     private int quantity;
 
@@ -74,11 +80,11 @@ public class OrderItem {
         this.brand = brand;
     }
 
-    public double getUnitPrice() {
+    public Money getUnitPrice() {
         return unitPrice;
     }
 
-    public void setUnitPrice(double unitPrice) {
+    public void setUnitPrice(Money unitPrice) {
         this.unitPrice = unitPrice;
     }
 
@@ -90,7 +96,7 @@ public class OrderItem {
         this.quantity = quantity;
     }
 
-    public double getTotal() {
-        return unitPrice * quantity;
+    public Money getTotal() {
+        return unitPrice.times(quantity);
     }
 }
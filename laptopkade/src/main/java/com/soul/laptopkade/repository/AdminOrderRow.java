@@ -0,0 +1,14 @@
+package com.soul.laptopkade.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * One line of the admin order list, selected directly by {@link OrderRepository}
+ * so no Order, OrderItem or User entity is loaded
+ *
+ * @param itemCount number of order lines
+ * @param username  account that placed the order, or null for guest checkout
+ */
+public record AdminOrderRow(Long id, LocalDateTime createdAt, String fullName, double total,
+                            String status, long itemCount, String username) {
+}
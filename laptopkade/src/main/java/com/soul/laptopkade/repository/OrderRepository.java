@@ -1,9 +1,58 @@
 package com.soul.laptopkade.repository;
 
 import com.soul.laptopkade.model.Order;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    String ADMIN_ROW = "SELECT new com.soul.laptopkade.repository.AdminOrderRow("
+            + "o.id, o.createdAt, o.fullName, o.total, o.status, "
+            + "(SELECT COUNT(i) FROM OrderItem i WHERE i.order = o), u.username) "
+            + "FROM Order o LEFT JOIN o.user u ";
+
+    boolean existsByIdempotencyKey(String idempotencyKey);
+
+    @Query("SELECT o.status FROM Order o WHERE o.idempotencyKey = ?1")
+    Optional<String> findStatusByIdempotencyKey(String idempotencyKey);
+
+    /**
+     * Move the given orders from one status to another; orders not in {@code from} are skipped
+     */
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :to WHERE o.id IN :ids AND o.status = :from")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("from") String from, @Param("to") String to);
+
+    /**
+     * Oldest orders first in a status since before the given time; the page size comes from the Pageable
+     */
+    @Query("SELECT o.id FROM Order o WHERE o.status = :status AND o.createdAt < :before ORDER BY o.createdAt")
+    List<Long> findIdsByStatusCreatedBefore(@Param("status") String status,
+                                            @Param("before") LocalDateTime before,
+                                            Pageable limit);
+
+    /**
+     * Newest orders first; the page size comes from the Pageable
+     */
+    @Query(ADMIN_ROW + "ORDER BY o.createdAt DESC, o.id DESC")
+    List<AdminOrderRow> findAdminRows(Pageable limit);
+
+    /**
+     * Orders strictly older than the (createdAt, id) keyset of the previous page's last row
+     */
+    @Query(ADMIN_ROW + "WHERE o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id) "
+            + "ORDER BY o.createdAt DESC, o.id DESC")
+    List<AdminOrderRow> findAdminRowsBefore(@Param("createdAt") LocalDateTime createdAt,
+                                            @Param("id") Long id,
+                                            Pageable limit);
 }
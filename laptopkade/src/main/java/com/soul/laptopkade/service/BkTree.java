@@ -0,0 +1,105 @@
+package com.soul.laptopkade.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Burkhard-Keller tree over the search vocabulary. Finds every term within a
+ * given Levenshtein distance of a query term while only visiting the branches
+ * the triangle inequality allows. Not thread-safe; guarded by the owning index.
+ */
+class BkTree {
+
+    private Node root;
+    private int size;
+
+    void add(String term) {
+        if (root == null) {
+            root = new Node(term);
+            size++;
+            return;
+        }
+        Node node = root;
+        while (true) {
+            int d = distance(term, node.term);
+            if (d == 0) {
+                return;
+            }
+            Node child = node.children.get(d);
+            if (child == null) {
+                node.children.put(d, new Node(term));
+                size++;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Report every term within {@code maxDistance} edits of {@code term}, with its distance
+     */
+    void search(String term, int maxDistance, ObjIntConsumer<String> consumer) {
+        if (root == null) {
+            return;
+        }
+        List<Node> stack = new ArrayList<>();
+        stack.add(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.remove(stack.size() - 1);
+            int d = distance(term, node.term);
+            if (d <= maxDistance) {
+                consumer.accept(node.term, d);
+            }
+            for (Map.Entry<Integer, Node> child : node.children.entrySet()) {
+                int edge = child.getKey();
+                if (edge >= d - maxDistance && edge <= d + maxDistance) {
+                    stack.add(child.getValue());
+                }
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        root = null;
+        size = 0;
+    }
+
+    /**
+     * Levenshtein edit distance between two terms
+     */
+    static int distance(String a, String b) {
+        int[] prev = new int[b.length() + 1];
+        int[] curr = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            prev[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            curr[0] = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                curr[j] = Math.min(Math.min(curr[j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+            }
+            int[] tmp = prev;
+            prev = curr;
+            curr = tmp;
+        }
+        return prev[b.length()];
+    }
+
+    private static final class Node {
+        private final String term;
+        private final Map<Integer, Node> children = new HashMap<>();
+
+        Node(String term) {
+            this.term = term;
+        }
+    }
+}
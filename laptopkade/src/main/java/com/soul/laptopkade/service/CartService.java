@@ -0,0 +1,105 @@
+package com.soul.laptopkade.service;
+
+import com.soul.laptopkade.model.CartItem;
+import com.soul.laptopkade.model.Laptop;
+import com.soul.laptopkade.model.Money;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shopping cart operations on top of the configured {@link CartStore}.
+ * The store keeps only quantities; display lines are rebuilt from the catalog
+ * cache on read, so names, prices and images are never copied per user.
+ */
+@Service
+public class CartService {
+
+    private final CartStore cartStore;
+    private final CatalogCache catalogCache;
+
+    public CartService(CartStore cartStore, CatalogCache catalogCache) {
+        this.cartStore = cartStore;
+        this.catalogCache = catalogCache;
+    }
+
+    /**
+     * Add a laptop to the cart; returns false if it is not in the catalog
+     *
+     * @throws IllegalArgumentException if the quantity is not positive
+     */
+    public boolean add(String cartId, Long laptopId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be at least 1");
+        }
+        if (laptopId == null) {
+            return false;
+        }
+        Laptop laptop = catalogCache.getLaptop(laptopId);
+        if (laptop == null || laptop.getPrice() == null) {
+            return false;
+        }
+        cartStore.add(cartId, laptopId, quantity, laptop.getPrice());
+        return true;
+    }
+
+    public void remove(String cartId, Long laptopId) {
+        if (cartId != null && laptopId != null && laptopId > 0) {
+            Laptop laptop = catalogCache.getLaptop(laptopId);
+            Money unitPrice = laptop != null && laptop.getPrice() != null
+                    ? laptop.getPrice()
+                    : Money.of(0, Money.DEFAULT_CURRENCY);
+            cartStore.remove(cartId, laptopId, unitPrice);
+        }
+    }
+
+    /**
+     * Running totals maintained by the store; O(1), no line iteration
+     */
+    public CartSummary getSummary(String cartId) {
+        return cartId == null ? CartSummary.EMPTY : cartStore.summary(cartId);
+    }
+
+    public void clear(String cartId) {
+        if (cartId != null) {
+            cartStore.clear(cartId);
+        }
+    }
+
+    /**
+     * Cart lines with display fields from the catalog; laptops since removed from
+     * the catalog are skipped
+     */
+    public List<CartItem> getItems(String cartId) {
+        if (cartId == null) {
+            return List.of();
+        }
+        LongIntMap lines = cartStore.get(cartId);
+        List<CartItem> items = new ArrayList<>(lines.size());
+        lines.forEach((laptopId, quantity) -> {
+            Laptop laptop = catalogCache.getLaptop(laptopId);
+            if (laptop != null && laptop.getPrice() != null) {
+                items.add(new CartItem(laptop.getId(), laptop.getName(), laptop.getBrand(),
+                        laptop.getPrice(), laptop.getImageUrl(), quantity));
+            }
+        });
+        return items;
+    }
+
+    /**
+     * Sum of the line totals as one integer sum over minor units. Checkout uses this
+     * against current catalog prices rather than the running subtotal.
+     */
+    public Money total(List<CartItem> items) {
+        long minorUnits = 0;
+        String currency = items.isEmpty() ? Money.DEFAULT_CURRENCY : items.get(0).getPrice().currency();
+        for (CartItem item : items) {
+            if (!currency.equals(item.getPrice().currency())) {
+                throw new IllegalStateException("Cart mixes " + currency + " and " + item.getPrice().currency());
+            }
+            minorUnits += item.getTotalMinor();
+        }
+        return Money.of(minorUnits, currency);
+    }
+}
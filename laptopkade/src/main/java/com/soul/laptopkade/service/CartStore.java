@@ -0,0 +1,60 @@
+package com.soul.laptopkade.service;
+
+import com.soul.laptopkade.model.CartItem;
+import com.soul.laptopkade.model.Money;
+
+import java.util.List;
+
+/**
+ * Where cart contents live. A cart is laptop id to quantity; names, prices and
+ * images are looked up in the catalog when the cart is rendered. Alongside the
+ * lines each store keeps a {@link CartSummary}, adjusted by the delta of every
+ * change, so badges and totals never re-walk the lines. Each line also records
+ * what its adds put on the subtotal, so removing it takes off exactly that even
+ * after the catalog price has changed.
+ * <p>
+ * Implementations are selected with {@code app.cart.store}:
+ * <ul>
+ *   <li>{@code memory} (default) - {@link InMemoryCartStore}, per node</li>
+ *   <li>{@code jdbc} - {@link JdbcCartStore}, an embedded H2 file or a shared database,
+ *   so carts survive restarts and any node can serve any cart</li>
+ * </ul>
+ */
+public interface CartStore {
+
+    /**
+     * Copy of the cart's quantities by laptop id; empty for an unknown cart
+     */
+    LongIntMap get(String cartId);
+
+    /**
+     * Running totals; {@link CartSummary#EMPTY} for an unknown cart
+     */
+    CartSummary summary(String cartId);
+
+    /**
+     * Add quantity of a laptop at the given unit price
+     */
+    void add(String cartId, long laptopId, int quantity, Money unitPrice);
+
+    /**
+     * Remove a laptop, taking off the totals what its adds put on; {@code unitPrice}
+     * prices lines stored before the line subtotal was recorded
+     */
+    void remove(String cartId, long laptopId, Money unitPrice);
+
+    /**
+     * Take the quantities of the given lines out of the cart, all or nothing, taking off
+     * the totals each line's share of what its adds put on; lines and quantities not
+     * listed stay. A line's {@link CartItem#getPrice() price} prices lines stored before
+     * the line subtotal was recorded.
+     *
+     * @return false, with the cart unchanged, if any line holds less than its quantity
+     */
+    boolean take(String cartId, List<CartItem> lines);
+
+    /**
+     * Empty the cart
+     */
+    void clear(String cartId);
+}
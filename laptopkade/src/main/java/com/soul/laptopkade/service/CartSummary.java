@@ -0,0 +1,19 @@
+package com.soul.laptopkade.service;
+
+import com.soul.laptopkade.model.Money;
+
+/**
+ * Running totals of a cart, kept up to date by the {@link CartStore} on every change
+ *
+ * @param lineCount distinct laptops in the cart
+ * @param itemCount sum of quantities
+ * @param subtotal  sum of unit price times quantity
+ */
+public record CartSummary(int lineCount, int itemCount, Money subtotal) {
+
+    public static final CartSummary EMPTY = new CartSummary(0, 0, Money.of(0, Money.DEFAULT_CURRENCY));
+
+    public boolean isEmpty() {
+        return lineCount == 0;
+    }
+}
@@ -0,0 +1,109 @@
+package com.soul.laptopkade.service;
+
+import com.soul.laptopkade.model.Laptop;
+import com.soul.laptopkade.repository.LaptopRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds an immutable, versioned snapshot of the laptop catalog in memory so
+ * the storefront pages can render without querying the database.
+ * The snapshot is built lazily on first read and rebuilt after every write.
+ */
+@Service
+public class CatalogCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogCache.class);
+
+    private final LaptopRepository laptopRepository;
+
+    private volatile Snapshot snapshot;
+    private long nextVersion = 1;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong rebuilds = new AtomicLong();
+
+    public CatalogCache(LaptopRepository laptopRepository) {
+        this.laptopRepository = laptopRepository;
+    }
+
+    /**
+     * Current catalog snapshot, loading it from the database on a cold cache
+     */
+    public Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            hits.incrementAndGet();
+            return current;
+        }
+        misses.incrementAndGet();
+        return load();
+    }
+
+    /**
+     * All laptops from the current snapshot (unmodifiable)
+     */
+    public List<Laptop> getLaptops() {
+        return getSnapshot().laptops();
+    }
+
+    /**
+     * Laptop from the current snapshot by id, or null if it is not in the catalog
+     */
+    public Laptop getLaptop(Long id) {
+        return getSnapshot().byId().get(id);
+    }
+
+    /**
+     * Rebuild the snapshot from the database. Call after any catalog write.
+     */
+    public synchronized Snapshot rebuild() {
+        List<Laptop> laptops = List.copyOf(laptopRepository.findAll());
+        Map<Long, Laptop> byId = new HashMap<>(laptops.size() * 2);
+        for (Laptop laptop : laptops) {
+            byId.put(laptop.getId(), laptop);
+        }
+        Snapshot fresh = new Snapshot(nextVersion++, laptops, Collections.unmodifiableMap(byId), Instant.now());
+        snapshot = fresh;
+        rebuilds.incrementAndGet();
+        logger.info("CATALOG snapshot v{} built with {} laptops", fresh.version(), laptops.size());
+        return fresh;
+    }
+
+    /**
+     * Drop the snapshot; the next read reloads it
+     */
+    public void invalidate() {
+        snapshot = null;
+    }
+
+    public Stats getStats() {
+        Snapshot current = snapshot;
+        return new Stats(
+                current != null ? current.version() : 0,
+                current != null ? current.laptops().size() : 0,
+                current != null ? current.builtAt() : null,
+                hits.get(), misses.get(), rebuilds.get());
+    }
+
+    private synchronized Snapshot load() {
+        // another thread may have loaded it while we waited for the lock
+        Snapshot current = snapshot;
+        return current != null ? current : rebuild();
+    }
+
+    public record Snapshot(long version, List<Laptop> laptops, Map<Long, Laptop> byId, Instant builtAt) {
+    }
+
+    public record Stats(long version, int size, Instant builtAt, long hits, long misses, long rebuilds) {
+    }
+}
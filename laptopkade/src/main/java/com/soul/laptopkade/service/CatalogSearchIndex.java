@@ -0,0 +1,391 @@
+package com.soul.laptopkade.service;
+
+import com.soul.laptopkade.model.Laptop;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-process inverted index over laptop name and brand.
+ * Every 1-, 2- and 3-character gram of the lower-cased fields maps to a sorted
+ * posting list of document ordinals, so a substring query is answered by
+ * intersecting the postings of its trigrams and verifying the few candidates
+ * instead of running a LIKE scan over the table.
+ * <p>
+ * Alongside the grams it keeps word-level postings for BM25 ranking and a
+ * BK-tree over the vocabulary, so {@link #rank} tolerates typos such as
+ * "thinkpd" or "macbok" and returns only the best {@code limit} hits.
+ */
+@Service
+public class CatalogSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSearchIndex.class);
+    private static final int MAX_GRAM = 3;
+    private static final Pattern TOKEN_SPLIT = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // BM25 parameters and per-field boosts
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double NAME_BOOST = 1.0;
+    private static final double BRAND_BOOST = 0.8;
+
+    // how much a match via each expansion counts relative to an exact term
+    private static final double PREFIX_WEIGHT = 0.75;
+    private static final double FUZZY_WEIGHT_1 = 0.5;
+    private static final double FUZZY_WEIGHT_2 = 0.25;
+    private static final double SUBSTRING_BONUS = 1.0;
+    private static final int MAX_PREFIX_EXPANSIONS = 32;
+
+    private final CatalogCache catalogCache;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final List<Laptop> docs = new ArrayList<>();
+    private final List<String> names = new ArrayList<>();
+    private final List<String> brands = new ArrayList<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+
+    private final NavigableMap<String, TermPostings> terms = new TreeMap<>();
+    private final BkTree vocabulary = new BkTree();
+    private final List<int[]> fieldLengths = new ArrayList<>();
+    private long totalNameLength;
+    private long totalBrandLength;
+
+    private volatile boolean ready;
+
+    public CatalogSearchIndex(CatalogCache catalogCache) {
+        this.catalogCache = catalogCache;
+    }
+
+    /**
+     * Build the index from the catalog snapshot once the application (and its seed data) is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        lock.writeLock().lock();
+        try {
+            List<Laptop> laptops = catalogCache.getLaptops();
+            docs.clear();
+            names.clear();
+            brands.clear();
+            postings.clear();
+            terms.clear();
+            vocabulary.clear();
+            fieldLengths.clear();
+            totalNameLength = 0;
+            totalBrandLength = 0;
+            for (Laptop laptop : laptops) {
+                addLocked(laptop);
+            }
+            ready = true;
+            logger.info("SEARCH index built: {} laptops, {} grams, {} terms",
+                    laptops.size(), postings.size(), vocabulary.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * True once the index has been built; until then callers should query the database
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Add a newly created laptop to the index
+     */
+    public void add(Laptop laptop) {
+        lock.writeLock().lock();
+        try {
+            if (ready) {
+                addLocked(laptop);
+            }
+            // otherwise the initial build picks it up from the catalog snapshot
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Case-insensitive substring match on name or brand, in catalog order
+     */
+    public List<Laptop> search(String query) {
+        lock.readLock().lock();
+        try {
+            int[] matches = substringMatches(query.toLowerCase(Locale.ROOT));
+            List<Laptop> results = new ArrayList<>(matches.length);
+            for (int doc : matches) {
+                results.add(docs.get(doc));
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Typo-tolerant ranked search. Each query word is expanded to exact, prefix and
+     * fuzzy (edit distance 1-2) vocabulary terms, candidates are scored with BM25
+     * over name and brand, and a bounded min-heap keeps only the top {@code limit}.
+     */
+    public List<Laptop> rank(String query, int limit) {
+        List<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            int docCount = docs.size();
+            if (docCount == 0) {
+                return List.of();
+            }
+            double avgName = Math.max(1.0, (double) totalNameLength / docCount);
+            double avgBrand = Math.max(1.0, (double) totalBrandLength / docCount);
+
+            Map<Integer, Double> scores = new HashMap<>();
+            for (String queryTerm : queryTerms) {
+                for (Map.Entry<String, Double> expansion : expand(queryTerm).entrySet()) {
+                    TermPostings tp = terms.get(expansion.getKey());
+                    double idf = Math.log(1 + (docCount - tp.size + 0.5) / (tp.size + 0.5));
+                    double weight = expansion.getValue() * idf;
+                    for (int i = 0; i < tp.size; i++) {
+                        int doc = tp.docs[i];
+                        int[] lengths = fieldLengths.get(doc);
+                        double score = NAME_BOOST * bm25(tp.nameTf[i], lengths[0], avgName)
+                                + BRAND_BOOST * bm25(tp.brandTf[i], lengths[1], avgBrand);
+                        scores.merge(doc, weight * score, Double::sum);
+                    }
+                }
+            }
+
+            // whole-query substring hits keep the old "contains" behaviour near the top
+            String q = query.trim().toLowerCase(Locale.ROOT);
+            if (q.length() >= MAX_GRAM) {
+                for (int doc : substringMatches(q)) {
+                    scores.merge(doc, SUBSTRING_BONUS, Double::sum);
+                }
+            }
+
+            // min-heap of the best hits so far; ties go to the earlier catalog entry
+            PriorityQueue<double[]> top = new PriorityQueue<>(limit + 1, (a, b) -> a[0] != b[0]
+                    ? Double.compare(a[0], b[0])
+                    : Double.compare(b[1], a[1]));
+            for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+                top.offer(new double[] {entry.getValue(), entry.getKey()});
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            Laptop[] ranked = new Laptop[top.size()];
+            for (int i = ranked.length - 1; i >= 0; i--) {
+                ranked[i] = docs.get((int) top.poll()[1]);
+            }
+            return Arrays.asList(ranked);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Vocabulary terms matching a query term, with the weight of the best way each matched
+     */
+    private Map<String, Double> expand(String queryTerm) {
+        Map<String, Double> matches = new HashMap<>();
+        if (terms.containsKey(queryTerm)) {
+            matches.put(queryTerm, 1.0);
+        }
+        int expansions = 0;
+        for (String term : terms.subMap(queryTerm, false, queryTerm + Character.MAX_VALUE, false).keySet()) {
+            if (++expansions > MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            matches.merge(term, PREFIX_WEIGHT, Math::max);
+        }
+        int maxDistance = queryTerm.length() <= 3 ? 0 : queryTerm.length() <= 7 ? 1 : 2;
+        if (maxDistance > 0) {
+            vocabulary.search(queryTerm, maxDistance, (term, d) -> {
+                if (d > 0) {
+                    matches.merge(term, d == 1 ? FUZZY_WEIGHT_1 : FUZZY_WEIGHT_2, Math::max);
+                }
+            });
+        }
+        return matches;
+    }
+
+    private static double bm25(int tf, int fieldLength, double avgFieldLength) {
+        if (tf == 0) {
+            return 0;
+        }
+        return tf * (K1 + 1) / (tf + K1 * (1 - B + B * fieldLength / avgFieldLength));
+    }
+
+    private static List<String> tokenize(String value) {
+        List<String> tokens = new ArrayList<>();
+        if (value == null) {
+            return tokens;
+        }
+        for (String token : TOKEN_SPLIT.split(value.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Ordinals of documents whose name or brand contains {@code q}; caller holds the read lock
+     */
+    private int[] substringMatches(String q) {
+        if (q.length() <= MAX_GRAM) {
+            // the whole query is a gram, so its postings are the exact answer
+            Postings exact = postings.get(q);
+            return exact == null ? new int[0] : Arrays.copyOf(exact.ids, exact.size);
+        }
+
+        Postings[] lists = new Postings[q.length() - MAX_GRAM + 1];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = postings.get(q.substring(i, i + MAX_GRAM));
+            if (lists[i] == null) {
+                return new int[0];
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+        int[] candidates = Arrays.copyOf(lists[0].ids, lists[0].size);
+        int count = candidates.length;
+        for (int i = 1; i < lists.length && count > 0; i++) {
+            count = intersect(candidates, count, lists[i]);
+        }
+
+        int verified = 0;
+        for (int i = 0; i < count; i++) {
+            int doc = candidates[i];
+            if (names.get(doc).contains(q) || brands.get(doc).contains(q)) {
+                candidates[verified++] = doc;
+            }
+        }
+        return Arrays.copyOf(candidates, verified);
+    }
+
+    private void addLocked(Laptop laptop) {
+        int doc = docs.size();
+        String name = normalize(laptop.getName());
+        String brand = normalize(laptop.getBrand());
+        docs.add(laptop);
+        names.add(name);
+        brands.add(brand);
+        indexField(name, doc);
+        indexField(brand, doc);
+
+        List<String> nameTokens = tokenize(name);
+        List<String> brandTokens = tokenize(brand);
+        fieldLengths.add(new int[] {nameTokens.size(), brandTokens.size()});
+        totalNameLength += nameTokens.size();
+        totalBrandLength += brandTokens.size();
+        for (String token : nameTokens) {
+            termPostings(token).add(doc, true);
+        }
+        for (String token : brandTokens) {
+            termPostings(token).add(doc, false);
+        }
+    }
+
+    private TermPostings termPostings(String token) {
+        TermPostings tp = terms.get(token);
+        if (tp == null) {
+            tp = new TermPostings();
+            terms.put(token, tp);
+            vocabulary.add(token);
+        }
+        return tp;
+    }
+
+    private void indexField(String value, int doc) {
+        for (int n = 1; n <= MAX_GRAM; n++) {
+            for (int i = 0; i + n <= value.length(); i++) {
+                postings.computeIfAbsent(value.substring(i, i + n), k -> new Postings()).add(doc);
+            }
+        }
+    }
+
+    /**
+     * Intersect the first {@code count} candidates in place with a posting list; returns the new count
+     */
+    private static int intersect(int[] candidates, int count, Postings other) {
+        int out = 0;
+        int j = 0;
+        for (int i = 0; i < count && j < other.size; i++) {
+            int doc = candidates[i];
+            while (j < other.size && other.ids[j] < doc) {
+                j++;
+            }
+            if (j < other.size && other.ids[j] == doc) {
+                candidates[out++] = doc;
+            }
+        }
+        return out;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Growable sorted list of document ordinals. Documents are added in increasing
+     * ordinal order, so appending keeps it sorted.
+     */
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int doc) {
+            if (size > 0 && ids[size - 1] == doc) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = doc;
+        }
+    }
+
+    /**
+     * Word-level postings with per-field term frequencies for BM25
+     */
+    private static final class TermPostings {
+        private int[] docs = new int[4];
+        private int[] nameTf = new int[4];
+        private int[] brandTf = new int[4];
+        private int size;
+
+        void add(int doc, boolean inName) {
+            if (size == 0 || docs[size - 1] != doc) {
+                if (size == docs.length) {
+                    docs = Arrays.copyOf(docs, size * 2);
+                    nameTf = Arrays.copyOf(nameTf, size * 2);
+                    brandTf = Arrays.copyOf(brandTf, size * 2);
+                }
+                docs[size++] = doc;
+            }
+            if (inName) {
+                nameTf[size - 1]++;
+            } else {
+                brandTf[size - 1]++;
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.soul.laptopkade.service;
+
+import com.soul.laptopkade.model.CartItem;
+import com.soul.laptopkade.model.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Carts held in this node's memory as compact {@link LongIntMap}s.
+ * Carts idle for longer than {@code app.cart.idle-ttl-minutes} are dropped.
+ * <p>
+ * Changes run inside {@code carts.compute} for their cart id, so an add cannot land
+ * in a cart that {@link #clear} or the idle sweep has just taken out of the map.
+ * Reads lock the cart itself.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cart.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryCartStore implements CartStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryCartStore.class);
+
+    private final Map<String, Cart> carts = new ConcurrentHashMap<>();
+    private final long idleTtlMillis;
+
+    public InMemoryCartStore(@Value("${app.cart.idle-ttl-minutes:1440}") long idleTtlMinutes) {
+        this.idleTtlMillis = idleTtlMinutes * 60_000L;
+    }
+
+    @Override
+    public LongIntMap get(String cartId) {
+        Cart cart = carts.get(cartId);
+        if (cart == null) {
+            return new LongIntMap();
+        }
+        synchronized (cart) {
+            cart.touch();
+            return cart.lines.copy();
+        }
+    }
+
+    @Override
+    public CartSummary summary(String cartId) {
+        Cart cart = carts.get(cartId);
+        if (cart == null) {
+            return CartSummary.EMPTY;
+        }
+        synchronized (cart) {
+            return cart.summary();
+        }
+    }
+
+    @Override
+    public void add(String cartId, long laptopId, int quantity, Money unitPrice) {
+        carts.compute(cartId, (id, existing) -> {
+            Cart cart = existing != null ? existing : new Cart();
+            synchronized (cart) {
+                cart.touch();
+                long lineMinor = unitPrice.minorUnits() * quantity;
+                cart.lines.addTo(laptopId, quantity);
+                cart.lineSubtotals.merge(laptopId, lineMinor, Long::sum);
+                cart.itemCount += quantity;
+                cart.subtotalMinor += lineMinor;
+                cart.currency = unitPrice.currency();
+            }
+            return cart;
+        });
+    }
+
+    @Override
+    public void remove(String cartId, long laptopId, Money unitPrice) {
+        carts.computeIfPresent(cartId, (id, cart) -> {
+            synchronized (cart) {
+                cart.touch();
+                int quantity = cart.lines.get(laptopId);
+                if (quantity > 0) {
+                    Long lineMinor = cart.lineSubtotals.remove(laptopId);
+                    cart.lines.remove(laptopId);
+                    cart.itemCount -= quantity;
+                    cart.subtotalMinor -= lineMinor != null ? lineMinor : unitPrice.minorUnits() * quantity;
+                }
+            }
+            return cart;
+        });
+    }
+
+    @Override
+    public boolean take(String cartId, List<CartItem> lines) {
+        if (lines.isEmpty()) {
+            return false;
+        }
+        boolean[] taken = {false};
+        carts.computeIfPresent(cartId, (id, cart) -> {
+            synchronized (cart) {
+                cart.touch();
+                for (CartItem line : lines) {
+                    if (cart.lines.get(line.getLaptopId()) < line.getQuantity()) {
+                        return cart;
+                    }
+                }
+                for (CartItem line : lines) {
+                    long laptopId = line.getLaptopId();
+                    int held = cart.lines.get(laptopId);
+                    long lineMinor = cart.lineSubtotals.getOrDefault(laptopId, line.getPrice().minorUnits() * held);
+                    long takenMinor = lineMinor * line.getQuantity() / held;
+                    cart.lines.addTo(laptopId, -line.getQuantity());
+                    if (line.getQuantity() == held) {
+                        cart.lineSubtotals.remove(laptopId);
+                    } else {
+                        cart.lineSubtotals.put(laptopId, lineMinor - takenMinor);
+                    }
+                    cart.itemCount -= line.getQuantity();
+                    cart.subtotalMinor -= takenMinor;
+                }
+                taken[0] = true;
+            }
+            return cart;
+        });
+        return taken[0];
+    }
+
+    @Override
+    public void clear(String cartId) {
+        carts.remove(cartId);
+    }
+
+    /**
+     * Drop carts nobody has touched within the idle TTL
+     */
+    @Scheduled(fixedDelayString = "${app.cart.sweep-ms:600000}")
+    public void evictIdleCarts() {
+        long cutoff = System.currentTimeMillis() - idleTtlMillis;
+        int evicted = 0;
+        for (String cartId : carts.keySet()) {
+            // re-checked under the key's lock, so a cart touched meanwhile is kept
+            if (carts.computeIfPresent(cartId, (id, cart) -> cart.touchedAt < cutoff ? null : cart) == null) {
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            logger.info("CART store: evicted {} idle carts", evicted);
+        }
+    }
+
+    private static final class Cart {
+        private final LongIntMap lines = new LongIntMap();
+        // what each line's adds put on the subtotal, at the prices of the time
+        private final Map<Long, Long> lineSubtotals = new HashMap<>(4);
+        private int itemCount;
+        private long subtotalMinor;
+        private String currency = Money.DEFAULT_CURRENCY;
+        private volatile long touchedAt = System.currentTimeMillis();
+
+        void touch() {
+            touchedAt = System.currentTimeMillis();
+        }
+
+        CartSummary summary() {
+            return new CartSummary(lines.size(), itemCount, Money.of(subtotalMinor, currency));
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.soul.laptopkade.service;
+
+import com.soul.laptopkade.model.CartItem;
+import com.soul.laptopkade.model.Money;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Carts stored as (cart_id, laptop_id, quantity, subtotal_minor) rows in their own
+ * database, with a {@code carts} row per cart holding its running totals. Every change
+ * locks the cart row, updates the line and applies the delta to the totals in one
+ * transaction.
+ * <p>
+ * By default the database is an embedded H2 file, which keeps carts across
+ * restarts; {@code AUTO_SERVER} lets several nodes on one host share it. Point
+ * {@code app.cart.jdbc.url} at a MySQL database to share carts across hosts.
+ * The store keeps its own small connection pool so the catalog's datasource
+ * can stay in-memory.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cart.store", havingValue = "jdbc")
+public class JdbcCartStore implements CartStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcCartStore.class);
+
+    private static final String CREATE_LINES =
+            "CREATE TABLE IF NOT EXISTS cart_lines ("
+            + "cart_id VARCHAR(36) NOT NULL, "
+            + "laptop_id BIGINT NOT NULL, "
+            + "quantity INT NOT NULL, "
+            + "subtotal_minor BIGINT, "
+            + "updated_at TIMESTAMP NOT NULL, "
+            + "PRIMARY KEY (cart_id, laptop_id))";
+
+    // tables created before lines recorded their subtotal; null there means unknown
+    private static final String ADD_LINE_SUBTOTAL = "ALTER TABLE cart_lines ADD COLUMN subtotal_minor BIGINT";
+
+    // one row per cart with its running totals; also the per-cart lock for changes
+    private static final String CREATE_CARTS =
+            "CREATE TABLE IF NOT EXISTS carts ("
+            + "cart_id VARCHAR(36) NOT NULL PRIMARY KEY, "
+            + "line_count INT NOT NULL, "
+            + "item_count INT NOT NULL, "
+            + "subtotal_minor BIGINT NOT NULL, "
+            + "currency CHAR(3) NOT NULL, "
+            + "updated_at TIMESTAMP NOT NULL)";
+
+    private final HikariDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long idleTtlMillis;
+
+    public JdbcCartStore(@Value("${app.cart.jdbc.url:jdbc:h2:file:./data/carts;AUTO_SERVER=TRUE}") String url,
+                         @Value("${app.cart.jdbc.username:sa}") String username,
+                         @Value("${app.cart.jdbc.password:}") String password,
+                         @Value("${app.cart.jdbc.pool-size:4}") int poolSize,
+                         @Value("${app.cart.idle-ttl-minutes:1440}") long idleTtlMinutes) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("cart-store");
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setMaximumPoolSize(poolSize);
+        this.dataSource = new HikariDataSource(config);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.idleTtlMillis = idleTtlMinutes * 60_000L;
+        jdbcTemplate.execute(CREATE_LINES);
+        jdbcTemplate.execute(CREATE_CARTS);
+        try {
+            jdbcTemplate.execute(ADD_LINE_SUBTOTAL);
+        } catch (DataAccessException e) {
+            // already there
+        }
+        logger.info("CART store: using {}", url);
+    }
+
+    @PreDestroy
+    public void close() {
+        dataSource.close();
+    }
+
+    @Override
+    public LongIntMap get(String cartId) {
+        LongIntMap lines = new LongIntMap();
+        jdbcTemplate.query("SELECT laptop_id, quantity FROM cart_lines WHERE cart_id = ?",
+                (RowCallbackHandler) rs -> lines.put(rs.getLong(1), rs.getInt(2)),
+                cartId);
+        return lines;
+    }
+
+    @Override
+    public CartSummary summary(String cartId) {
+        List<CartSummary> rows = jdbcTemplate.query(
+                "SELECT line_count, item_count, subtotal_minor, currency FROM carts WHERE cart_id = ?",
+                (rs, rowNum) -> new CartSummary(rs.getInt(1), rs.getInt(2), Money.of(rs.getLong(3), rs.getString(4))),
+                cartId);
+        return rows.isEmpty() ? CartSummary.EMPTY : rows.get(0);
+    }
+
+    @Override
+    public void add(String cartId, long laptopId, int quantity, Money unitPrice) {
+        ensureCart(cartId, unitPrice.currency());
+        transactionTemplate.executeWithoutResult(status -> {
+            lockCart(cartId);
+            int newLines = 0;
+            long lineMinor = unitPrice.minorUnits() * quantity;
+            if (jdbcTemplate.update(
+                    "UPDATE cart_lines SET quantity = quantity + ?, "
+                            + "subtotal_minor = COALESCE(subtotal_minor, quantity * ?) + ?, updated_at = ? "
+                            + "WHERE cart_id = ? AND laptop_id = ?",
+                    quantity, unitPrice.minorUnits(), lineMinor, now(), cartId, laptopId) == 0) {
+                jdbcTemplate.update("INSERT INTO cart_lines (cart_id, laptop_id, quantity, subtotal_minor, updated_at) "
+                                + "VALUES (?, ?, ?, ?, ?)",
+                        cartId, laptopId, quantity, lineMinor, now());
+                newLines = 1;
+            }
+            adjustTotals(cartId, newLines, quantity, lineMinor, unitPrice.currency());
+        });
+    }
+
+    @Override
+    public void remove(String cartId, long laptopId, Money unitPrice) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!lockCart(cartId)) {
+                return;
+            }
+            List<long[]> lines = jdbcTemplate.query(
+                    "SELECT quantity, COALESCE(subtotal_minor, quantity * ?) FROM cart_lines WHERE cart_id = ? AND laptop_id = ?",
+                    (rs, rowNum) -> new long[] {rs.getInt(1), rs.getLong(2)},
+                    unitPrice.minorUnits(), cartId, laptopId);
+            if (lines.isEmpty()) {
+                return;
+            }
+            int quantity = (int) lines.get(0)[0];
+            long lineMinor = lines.get(0)[1];
+            jdbcTemplate.update("DELETE FROM cart_lines WHERE cart_id = ? AND laptop_id = ?", cartId, laptopId);
+            adjustTotals(cartId, -1, -quantity, -lineMinor, unitPrice.currency());
+        });
+    }
+
+    @Override
+    public boolean take(String cartId, List<CartItem> lines) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            if (lines.isEmpty() || !lockCart(cartId)) {
+                return false;
+            }
+            int removedLines = 0;
+            int items = 0;
+            long subtotalMinor = 0;
+            for (CartItem line : lines) {
+                List<long[]> held = jdbcTemplate.query(
+                        "SELECT quantity, COALESCE(subtotal_minor, quantity * ?) FROM cart_lines WHERE cart_id = ? AND laptop_id = ?",
+                        (rs, rowNum) -> new long[] {rs.getInt(1), rs.getLong(2)},
+                        line.getPrice().minorUnits(), cartId, line.getLaptopId());
+                if (held.isEmpty() || held.get(0)[0] < line.getQuantity()) {
+                    status.setRollbackOnly();
+                    return false;
+                }
+                int quantity = (int) held.get(0)[0];
+                long lineMinor = held.get(0)[1];
+                long takenMinor = lineMinor * line.getQuantity() / quantity;
+                if (line.getQuantity() == quantity) {
+                    jdbcTemplate.update("DELETE FROM cart_lines WHERE cart_id = ? AND laptop_id = ?", cartId, line.getLaptopId());
+                    removedLines++;
+                } else {
+                    jdbcTemplate.update("UPDATE cart_lines SET quantity = ?, subtotal_minor = ?, updated_at = ? "
+                                    + "WHERE cart_id = ? AND laptop_id = ?",
+                            quantity - line.getQuantity(), lineMinor - takenMinor, now(), cartId, line.getLaptopId());
+                }
+                items += line.getQuantity();
+                subtotalMinor += takenMinor;
+            }
+            adjustTotals(cartId, -removedLines, -items, -subtotalMinor, lines.get(0).getPrice().currency());
+            return true;
+        }));
+    }
+
+    @Override
+    public void clear(String cartId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM cart_lines WHERE cart_id = ?", cartId);
+            jdbcTemplate.update("DELETE FROM carts WHERE cart_id = ?", cartId);
+        });
+    }
+
+    /**
+     * Delete carts nobody has changed within the idle TTL
+     */
+    @Scheduled(fixedDelayString = "${app.cart.sweep-ms:600000}")
+    public void evictIdleCarts() {
+        Timestamp cutoff = new Timestamp(System.currentTimeMillis() - idleTtlMillis);
+        jdbcTemplate.update("DELETE FROM cart_lines WHERE cart_id IN (SELECT cart_id FROM carts WHERE updated_at < ?)", cutoff);
+        int deleted = jdbcTemplate.update("DELETE FROM carts WHERE updated_at < ?", cutoff);
+        if (deleted > 0) {
+            logger.info("CART store: deleted {} idle carts", deleted);
+        }
+    }
+
+    private void ensureCart(String cartId, String currency) {
+        try {
+            jdbcTemplate.update("INSERT INTO carts (cart_id, line_count, item_count, subtotal_minor, currency, updated_at) "
+                    + "VALUES (?, 0, 0, 0, ?, ?)", cartId, currency, now());
+        } catch (DuplicateKeyException e) {
+            // already there
+        }
+    }
+
+    /**
+     * Row-lock the cart so concurrent changes from any node apply one at a time
+     */
+    private boolean lockCart(String cartId) {
+        return !jdbcTemplate.queryForList("SELECT cart_id FROM carts WHERE cart_id = ? FOR UPDATE", String.class, cartId)
+                .isEmpty();
+    }
+
+    private void adjustTotals(String cartId, int lines, int items, long subtotalMinor, String currency) {
+        jdbcTemplate.update("UPDATE carts SET line_count = line_count + ?, item_count = item_count + ?, "
+                        + "subtotal_minor = subtotal_minor + ?, currency = ?, updated_at = ? WHERE cart_id = ?",
+                lines, items, subtotalMinor, currency, now(), cartId);
+    }
+
+    private static Timestamp now() {
+        return new Timestamp(System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,193 @@
+package com.soul.laptopkade.service;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from positive {@code long} keys to {@code int} values,
+ * stored in two primitive arrays. No boxing and no per-entry objects, so a cart
+ * with a few lines costs a few hundred bytes. Key 0 marks an empty slot, and
+ * values of 0 or less are never stored. Not thread-safe.
+ */
+public final class LongIntMap implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final long EMPTY = 0L;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    public LongIntMap() {
+        this(4);
+    }
+
+    public LongIntMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2) - 1) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+    }
+
+    /**
+     * Value for the key, or 0 if absent
+     */
+    public int get(long key) {
+        int slot = find(key);
+        return slot < 0 ? 0 : values[slot];
+    }
+
+    /**
+     * Set the value; a value of 0 or less removes the key
+     */
+    public void put(long key, int value) {
+        if (value <= 0) {
+            remove(key);
+            return;
+        }
+        int slot = findOrInsert(key);
+        values[slot] = value;
+    }
+
+    /**
+     * Add {@code delta} to the value and return the result; the key is removed once it reaches 0
+     */
+    public int addTo(long key, int delta) {
+        int slot = findOrInsert(key);
+        int updated = values[slot] + delta;
+        if (updated <= 0) {
+            removeAt(slot);
+            return 0;
+        }
+        values[slot] = updated;
+        return updated;
+    }
+
+    public boolean remove(long key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return false;
+        }
+        removeAt(slot);
+        return true;
+    }
+
+    public boolean containsKey(long key) {
+        return find(key) >= 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(values, 0);
+        size = 0;
+    }
+
+    public void forEach(EntryConsumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    public LongIntMap copy() {
+        LongIntMap copy = new LongIntMap(0);
+        copy.keys = keys.clone();
+        copy.values = values.clone();
+        copy.size = size;
+        return copy;
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(long key, int value);
+    }
+
+    private int find(long key) {
+        checkKey(key);
+        int mask = keys.length - 1;
+        for (int i = home(key, mask); ; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return i;
+            }
+            if (keys[i] == EMPTY) {
+                return -1;
+            }
+        }
+    }
+
+    private int findOrInsert(long key) {
+        checkKey(key);
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        for (int i = home(key, mask); ; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return i;
+            }
+            if (keys[i] == EMPTY) {
+                keys[i] = key;
+                values[i] = 0;
+                size++;
+                return i;
+            }
+        }
+    }
+
+    /**
+     * Backward-shift deletion: pull later entries of the probe run into the gap
+     * so lookups never need tombstones
+     */
+    private void removeAt(int slot) {
+        int mask = keys.length - 1;
+        int gap = slot;
+        for (int i = (slot + 1) & mask; keys[i] != EMPTY; i = (i + 1) & mask) {
+            int home = home(keys[i], mask);
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        keys[gap] = EMPTY;
+        values[gap] = 0;
+        size--;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        int mask = capacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != EMPTY) {
+                int i = home(oldKeys[j], mask);
+                while (keys[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private static int home(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private static void checkKey(long key) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("Key must be positive: " + key);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.soul.laptopkade.service;
+
+import com.soul.laptopkade.model.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One-time migration of free-form price columns to {@link Money} columns, for
+ * databases created before prices were typed (MySQL with ddl-auto=update).
+ * <ul>
+ *   <li>{@code laptops.price VARCHAR} is parsed into {@code price_minor} / {@code price_currency}</li>
+ *   <li>{@code order_items.unit_price DOUBLE} is converted into {@code unit_price_minor} /
+ *   {@code unit_price_currency}</li>
+ * </ul>
+ * A legacy column is dropped once every row has been converted, since new rows no longer
+ * write it. Prices that cannot be parsed are logged and the column is kept, so they can
+ * be fixed by hand and picked up on the next start. Does nothing on a fresh schema.
+ */
+@Component
+@Order(0)
+public class MoneyMigration implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(MoneyMigration.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CatalogCache catalogCache;
+
+    public MoneyMigration(JdbcTemplate jdbcTemplate, CatalogCache catalogCache) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.catalogCache = catalogCache;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (hasColumn("laptops", "price")) {
+            migrateLaptopPrices();
+        }
+        if (hasColumn("order_items", "unit_price")) {
+            migrateOrderItemPrices();
+        }
+    }
+
+    private void migrateLaptopPrices() {
+        List<Object[]> updates = new ArrayList<>();
+        int unparseable = 0;
+        List<Object[]> rows = jdbcTemplate.query(
+                "SELECT id, price FROM laptops WHERE price_minor IS NULL AND price IS NOT NULL",
+                (rs, rowNum) -> new Object[]{rs.getLong(1), rs.getString(2)});
+        for (Object[] row : rows) {
+            try {
+                Money money = Money.parse((String) row[1]);
+                updates.add(new Object[]{money.minorUnits(), money.currency(), row[0]});
+            } catch (IllegalArgumentException e) {
+                unparseable++;
+                logger.warn("MONEY migration: laptop id {} has unparseable price '{}'", row[0], row[1]);
+            }
+        }
+        jdbcTemplate.batchUpdate("UPDATE laptops SET price_minor = ?, price_currency = ? WHERE id = ?", updates);
+        logger.info("MONEY migration: converted {} laptop prices", updates.size());
+        if (unparseable == 0) {
+            jdbcTemplate.execute("ALTER TABLE laptops DROP COLUMN price");
+            logger.info("MONEY migration: dropped legacy column laptops.price");
+        }
+        if (!updates.isEmpty()) {
+            catalogCache.invalidate();
+        }
+    }
+
+    private void migrateOrderItemPrices() {
+        int converted = jdbcTemplate.update(
+                "UPDATE order_items SET unit_price_minor = ROUND(unit_price * 100), unit_price_currency = ? "
+                + "WHERE unit_price_minor IS NULL", Money.DEFAULT_CURRENCY);
+        jdbcTemplate.execute("ALTER TABLE order_items DROP COLUMN unit_price");
+        logger.info("MONEY migration: converted {} order item prices and dropped order_items.unit_price", converted);
+    }
+
+    private boolean hasColumn(String table, String column) {
+        Boolean found = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            // H2 reports unquoted identifiers in upper case, MySQL in lower case
+            for (String name : new String[]{table, table.toUpperCase()}) {
+                try (ResultSet rs = metaData.getColumns(connection.getCatalog(), null, name, null)) {
+                    while (rs.next()) {
+                        if (column.equalsIgnoreCase(rs.getString("COLUMN_NAME"))) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        });
+        return Boolean.TRUE.equals(found);
+    }
+}
@@ -0,0 +1,281 @@
+package com.soul.laptopkade.service;
+
+import com.soul.laptopkade.model.CartItem;
+import com.soul.laptopkade.model.Order;
+import com.soul.laptopkade.model.OrderItem;
+import com.soul.laptopkade.repository.OrderRepository;
+import com.soul.laptopkade.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Takes order acceptance off the checkout request thread.
+ * <p>
+ * Checkout takes the ordered quantities out of the cart, all or nothing, and stores
+ * the order as {@link Order#NEW} under the idempotency key rendered into the checkout
+ * form, in one short transaction, then returns. Lines added to the cart meanwhile stay
+ * there, and a second checkout of the same lines finds them gone, so a cart cannot be
+ * ordered twice. If the insert fails the lines are put back. A form that is submitted
+ * twice finds its key already stored; the unique index on the key also catches
+ * duplicates across nodes.
+ * <p>
+ * The stored order's id then goes on a bounded queue. A small pool of workers drains
+ * it and moves orders from NEW to {@link Order#ACCEPTED} in batches, one UPDATE per
+ * batch. Orders still NEW after {@code app.orders.intake-recovery-after-ms}, because
+ * the queue was full or the node that took them went down, are accepted by a periodic
+ * sweep on any node, so a stored order is never lost.
+ */
+@Service
+public class OrderIntakeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderIntakeService.class);
+
+    private final OrderRepository orderRepository;
+    private final UserRepository userRepository;
+    private final CartStore cartStore;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<Long> queue;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final long recoveryAfterMs;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    private final LongAdder stored = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder cartChanged = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder deferred = new LongAdder();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder recovered = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    public OrderIntakeService(OrderRepository orderRepository,
+                              UserRepository userRepository,
+                              CartStore cartStore,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${app.orders.intake-workers:2}") int workerCount,
+                              @Value("${app.orders.intake-queue-capacity:1000}") int queueCapacity,
+                              @Value("${app.orders.intake-batch-size:50}") int batchSize,
+                              @Value("${app.orders.intake-recovery-after-ms:30000}") long recoveryAfterMs) {
+        this.orderRepository = orderRepository;
+        this.userRepository = userRepository;
+        this.cartStore = cartStore;
+        this.transactionTemplate = transactionTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.recoveryAfterMs = recoveryAfterMs;
+        for (int i = 1; i <= workerCount; i++) {
+            Thread worker = new Thread(this::drain, "order-intake-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    /**
+     * Accept whatever is still queued before the context goes away; anything left
+     * over is NEW in the database and recovered by the next node's sweep
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        List<Long> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        for (int from = 0; from < rest.size(); from += batchSize) {
+            accept(rest.subList(from, Math.min(from + batchSize, rest.size())));
+        }
+    }
+
+    /**
+     * Take the order's lines out of the cart and store the order as NEW under its
+     * idempotency key.
+     *
+     * @param userId logged-in user to attach, or null for guest checkout
+     * @param cartId cart the order was built from, or null if it did not come from a cart
+     * @throws PlacementFailedException if the order could not be stored; the cart is as it was
+     */
+    public Submission submit(String idempotencyKey, Order order, Long userId, String cartId) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            throw new IllegalArgumentException("Idempotency key is required");
+        }
+        if (order.getItems().isEmpty()) {
+            throw new IllegalArgumentException("Order has no items");
+        }
+        if (orderRepository.existsByIdempotencyKey(idempotencyKey)) {
+            duplicates.increment();
+            return Submission.DUPLICATE;
+        }
+        List<CartItem> lines = cartLines(order);
+        if (cartId != null && !cartStore.take(cartId, lines)) {
+            cartChanged.increment();
+            return Submission.CART_CHANGED;
+        }
+
+        order.setIdempotencyKey(idempotencyKey);
+        order.setStatus(Order.NEW);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (userId != null) {
+                    order.setUser(userRepository.getReferenceById(userId));
+                }
+                orderRepository.save(order);
+            });
+        } catch (RuntimeException e) {
+            // nothing was stored, so the lines go back into the cart
+            restore(cartId, lines);
+            if (orderRepository.existsByIdempotencyKey(idempotencyKey)) {
+                // the same form was stored concurrently, possibly by another node
+                duplicates.increment();
+                return Submission.DUPLICATE;
+            }
+            failed.increment();
+            logger.error("ORDER_INTAKE failed to store order key={}", idempotencyKey, e);
+            throw new PlacementFailedException();
+        }
+        stored.increment();
+        if (!queue.offer(order.getId())) {
+            // already stored as NEW; the recovery sweep accepts it
+            deferred.increment();
+        }
+        return Submission.QUEUED;
+    }
+
+    /**
+     * Stored status for an idempotency key, or null if the key is unknown
+     */
+    public String status(String idempotencyKey) {
+        return orderRepository.findStatusByIdempotencyKey(idempotencyKey).orElse(null);
+    }
+
+    public Stats getStats() {
+        return new Stats(workers.size(), queue.size(), queueCapacity, batchSize,
+                stored.sum(), duplicates.sum(), cartChanged.sum(), failed.sum(), deferred.sum(),
+                accepted.sum(), recovered.sum(), batches.sum());
+    }
+
+    /**
+     * Accept orders left NEW for longer than the recovery delay, whichever node stored them
+     */
+    @Scheduled(fixedDelayString = "${app.orders.intake-sweep-ms:60000}")
+    public void recoverStale() {
+        LocalDateTime before = LocalDateTime.now().minus(recoveryAfterMs, ChronoUnit.MILLIS);
+        List<Long> ids;
+        do {
+            ids = orderRepository.findIdsByStatusCreatedBefore(Order.NEW, before, PageRequest.of(0, batchSize));
+            if (!ids.isEmpty()) {
+                int count = accept(ids);
+                recovered.add(count);
+                logger.info("ORDER_INTAKE recovered {} orders left NEW", count);
+            }
+        } while (ids.size() == batchSize);
+    }
+
+    private void drain() {
+        List<Long> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Long first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                accept(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                // the orders stay NEW and the recovery sweep retries them
+                logger.error("Order intake worker failed on a batch of {}", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Move NEW orders to ACCEPTED in one statement; orders already accepted elsewhere are skipped
+     */
+    private int accept(List<Long> ids) {
+        Integer updated = transactionTemplate.execute(
+                status -> orderRepository.updateStatus(ids, Order.NEW, Order.ACCEPTED));
+        int count = updated == null ? 0 : updated;
+        batches.increment();
+        accepted.add(count);
+        logger.info("ORDER_INTAKE accepted {} of {} orders", count, ids.size());
+        return count;
+    }
+
+    private void restore(String cartId, List<CartItem> lines) {
+        if (cartId == null) {
+            return;
+        }
+        for (CartItem line : lines) {
+            cartStore.add(cartId, line.getLaptopId(), line.getQuantity(), line.getPrice());
+        }
+    }
+
+    private static List<CartItem> cartLines(Order order) {
+        List<CartItem> lines = new ArrayList<>(order.getItems().size());
+        for (OrderItem item : order.getItems()) {
+            lines.add(new CartItem(item.getLaptopId(), item.getName(), item.getBrand(),
+                    item.getUnitPrice(), null, item.getQuantity()));
+        }
+        return lines;
+    }
+
+    /**
+     * Outcome of {@link #submit}
+     */
+    public enum Submission {
+        /** Stored as NEW and queued for acceptance */
+        QUEUED,
+        /** The idempotency key was already stored; nothing was placed */
+        DUPLICATE,
+        /** The cart no longer holds the ordered quantities, typically taken by another checkout */
+        CART_CHANGED
+    }
+
+    /**
+     * Intake throughput, queue size and outcomes
+     */
+    public record Stats(int workers, int queued, int queueCapacity, int batchSize,
+                        long stored, long duplicates, long cartChanged, long failed, long deferred,
+                        long accepted, long recovered, long batches) {
+    }
+
+    /**
+     * The order could not be stored; the customer's cart is unchanged
+     */
+    public static class PlacementFailedException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        public PlacementFailedException() {
+            super("We could not place your order right now, please try again");
+        }
+    }
+}
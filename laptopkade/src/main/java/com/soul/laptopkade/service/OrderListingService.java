@@ -0,0 +1,94 @@
+package com.soul.laptopkade.service;
+
+import com.soul.laptopkade.repository.AdminOrderRow;
+import com.soul.laptopkade.repository.OrderRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Admin order list, paged by keyset on (created_at, id) over the
+ * idx_orders_created_at index. Each page reads only its own rows, so the cost
+ * does not grow with the order history the way OFFSET paging or findAll does.
+ * The index only orders and bounds the page: it does not cover the listed
+ * columns, so each row on the page is one lookup into orders, plus its item
+ * count and username.
+ */
+@Service
+public class OrderListingService {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private final OrderRepository orderRepository;
+
+    public OrderListingService(OrderRepository orderRepository) {
+        this.orderRepository = orderRepository;
+    }
+
+    /**
+     * @param cursor token from the previous page's {@link OrderPage#nextCursor()}, or null for the newest orders
+     */
+    @Transactional(readOnly = true)
+    public OrderPage page(String cursor, Integer size) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // fetch one extra row to learn whether another page exists
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<AdminOrderRow> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = orderRepository.findAdminRows(limit);
+        } else {
+            Keyset after = Keyset.decode(cursor);
+            rows = orderRepository.findAdminRowsBefore(after.createdAt(), after.id(), limit);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<AdminOrderRow> content = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            AdminOrderRow last = content.get(content.size() - 1);
+            nextCursor = new Keyset(last.createdAt(), last.id()).encode();
+        }
+        return new OrderPage(content, pageSize, nextCursor);
+    }
+
+    /**
+     * One page of the admin order list
+     *
+     * @param size       page size actually applied (defaulted and capped)
+     * @param nextCursor token for the following (older) page, or null on the last page
+     */
+    public record OrderPage(List<AdminOrderRow> rows, int size, String nextCursor) {
+
+        public boolean hasMore() {
+            return nextCursor != null;
+        }
+    }
+
+    /**
+     * Opaque cursor: createdAt and id of the last row shown, URL-safe base64
+     */
+    private record Keyset(LocalDateTime createdAt, long id) {
+
+        String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Keyset decode(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+                int bar = raw.lastIndexOf('|');
+                return new Keyset(LocalDateTime.parse(raw.substring(0, bar)), Long.parseLong(raw.substring(bar + 1)));
+            } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
-INSERT INTO laptops (name, brand, price, image_url) VALUES 
-('XPS 13','Dell','$999','/images/laptops/laptop_183544.jpg'),
-('MacBook Air','Apple','$1199','/images/laptops/pexels-junior-teixeira-1064069-2047905.jpg'),
-('ThinkPad X1','Lenovo','$1299','/images/laptops/pexels-life-of-pix-7974.jpg'),
-('Pavilion 15','HP','$849','/images/laptops/pexels-pixabay-459653.jpg');
+-- ids come from the entity's pooled sequence; each raw NEXT VALUE uses up one block of 50
+INSERT INTO laptops (id, name, brand, price_minor, price_currency, image_url) VALUES 
+(NEXT VALUE FOR laptops_seq,'XPS 13','Dell',99900,'USD','/images/laptops/laptop_183544.jpg'),
+(NEXT VALUE FOR laptops_seq,'MacBook Air','Apple',119900,'USD','/images/laptops/pexels-junior-teixeira-1064069-2047905.jpg'),
+(NEXT VALUE FOR laptops_seq,'ThinkPad X1','Lenovo',129900,'USD','/images/laptops/pexels-life-of-pix-7974.jpg'),
+(NEXT VALUE FOR laptops_seq,'Pavilion 15','HP',84900,'USD','/images/laptops/pexels-pixabay-459653.jpg');
@@ -1,7 +1,10 @@
- CREATE TABLE IF NOT EXISTS laptops (
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+CREATE SEQUENCE IF NOT EXISTS laptops_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS laptops (
+  id BIGINT PRIMARY KEY,
   name VARCHAR(255),
   brand VARCHAR(255),
-  price VARCHAR(255),
+  price_minor BIGINT,
+  price_currency CHAR(3),
   image_url VARCHAR(1024)
 );
@@ -0,0 +1,84 @@
+package com.soul.laptopkade.controller;
+
+import com.soul.laptopkade.model.Money;
+import com.soul.laptopkade.service.CartSummary;
+import org.junit.jupiter.api.Test;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.context.IExpressionContext;
+import org.thymeleaf.linkbuilder.StandardLinkBuilder;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Renders the HTMX fragments that {@link CartController} returns and checks the
+ * out-of-band swaps that keep the badge and summary card in step with the cart
+ */
+class CartFragmentsTest {
+
+    private static final CartSummary TWO_ITEMS = new CartSummary(1, 2, Money.of(1_998_00, Money.DEFAULT_CURRENCY));
+
+    private final SpringTemplateEngine engine = engine();
+
+    @Test
+    void badgeIsSwappedOutOfBandOnlyWhenAskedTo() {
+        String oob = render("badge", TWO_ITEMS, "true");
+        assertTrue(oob.contains("id=\"cart-badge\""), oob);
+        assertTrue(oob.contains("hx-swap-oob=\"true\""), oob);
+        assertTrue(oob.contains(">2</span>"), oob);
+
+        String plain = render("badge", TWO_ITEMS, null);
+        assertFalse(plain.contains("hx-swap-oob"), plain);
+    }
+
+    @Test
+    void fragmentsDoNotPollForCartChanges() {
+        for (String fragment : Set.of("badge", "summary", "removed")) {
+            String html = render(fragment, TWO_ITEMS, "true");
+            assertFalse(html.contains("hx-trigger"), html);
+            assertFalse(html.contains("hx-get"), html);
+        }
+    }
+
+    @Test
+    void removeResponseRefreshesTheSummaryAndShowsTheEmptyNoticeWithTheLastLine() {
+        String remaining = render("removed", TWO_ITEMS, "true");
+        assertTrue(remaining.contains("id=\"cart-summary\""), remaining);
+        assertTrue(remaining.contains("hx-swap-oob=\"true\""), remaining);
+        assertTrue(remaining.contains("$1,998"), remaining);
+        assertFalse(remaining.contains("cart-lines"), remaining);
+
+        String emptied = render("removed", CartSummary.EMPTY, "true");
+        assertTrue(emptied.contains("id=\"cart-lines\""), emptied);
+        assertTrue(emptied.contains("Your cart is empty."), emptied);
+        assertTrue(emptied.contains("disabled"), emptied);
+    }
+
+    private String render(String fragment, CartSummary summary, String oob) {
+        Context context = new Context();
+        context.setVariable("summary", summary);
+        context.setVariable("oob", oob);
+        return engine.process("cart-fragments", Set.of(fragment), context);
+    }
+
+    private static SpringTemplateEngine engine() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        // no servlet context here, so render context-relative links as given
+        engine.setLinkBuilder(new StandardLinkBuilder() {
+            @Override
+            protected String computeContextPath(IExpressionContext context, String base, Map<String, Object> parameters) {
+                return "";
+            }
+        });
+        return engine;
+    }
+}
@@ -0,0 +1,49 @@
+package com.soul.laptopkade.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoneyTest {
+
+    @Test
+    void parsesPricesInTheFormsAdminsType() {
+        assertEquals(Money.of(999_00, "USD"), Money.parse("$999"));
+        assertEquals(Money.of(1_199_50, "USD"), Money.parse("1,199.50"));
+        assertEquals(Money.of(849_00, "USD"), Money.parse("USD 849"));
+        assertEquals(Money.of(10_00, "EUR"), Money.parse("\u20AC10"));
+        assertEquals(Money.of(10_00, "EUR"), Money.parse("10\u20AC"));
+        assertEquals(Money.of(85_000_00, "BDT"), Money.parse("bdt 85,000"));
+        assertEquals(Money.of(12_35, "USD"), Money.parse(" 12.345 "));
+    }
+
+    @Test
+    void rejectsMissingNegativeAndMalformedPrices() {
+        assertThrows(IllegalArgumentException.class, () -> Money.parse(null));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("  "));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("-5"));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("$-5"));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("abc"));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("12.5.0"));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("99999999999999999999"));
+    }
+
+    @Test
+    void formatsWithSymbolAndGrouping() {
+        assertEquals("$1,199", Money.of(1_199_00, "USD").toString());
+        assertEquals("$1,199.50", Money.of(1_199_50, "USD").toString());
+        assertEquals("\u00A30.05", Money.of(5, "GBP").toString());
+        assertEquals("CHF 20", Money.of(20_00, "CHF").toString());
+    }
+
+    @Test
+    void arithmeticStaysInOneCurrency() {
+        Money price = Money.of(999_99, "USD");
+        assertEquals(Money.of(2_999_97, "USD"), price.times(3));
+        assertEquals(Money.of(1_000_00, "USD"), price.plus(Money.of(1, "USD")));
+        assertEquals(1199.5, Money.of(1_199_50, "USD").toMajor());
+        assertThrows(IllegalArgumentException.class, () -> price.plus(Money.of(1, "EUR")));
+        assertThrows(ArithmeticException.class, () -> Money.of(Long.MAX_VALUE, "USD").times(2));
+    }
+}
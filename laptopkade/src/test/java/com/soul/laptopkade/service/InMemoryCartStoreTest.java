@@ -0,0 +1,134 @@
+package com.soul.laptopkade.service;
+
+import com.soul.laptopkade.model.CartItem;
+import com.soul.laptopkade.model.Money;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryCartStoreTest {
+
+    private static final String CART = "cart-1";
+
+    private final InMemoryCartStore store = new InMemoryCartStore(60);
+
+    @Test
+    void removeTakesOffWhatTheLineAddedAfterARepricing() {
+        store.add(CART, 1L, 2, usd(1_000_00));
+        store.add(CART, 2L, 1, usd(500_00));
+        // the laptop was repriced between the adds and again before the remove
+        store.add(CART, 1L, 1, usd(1_200_00));
+
+        store.remove(CART, 1L, usd(1_500_00));
+
+        CartSummary summary = store.summary(CART);
+        assertEquals(1, summary.lineCount());
+        assertEquals(1, summary.itemCount());
+        assertEquals(usd(500_00), summary.subtotal());
+
+        store.remove(CART, 2L, usd(450_00));
+        assertTrue(store.summary(CART).isEmpty());
+        assertEquals(usd(0), store.summary(CART).subtotal());
+    }
+
+    @Test
+    void runningTotalsMatchTheLinesThroughRandomChanges() {
+        Random random = new Random(7);
+        Map<Long, Long> prices = new HashMap<>();
+        Map<Long, Integer> quantities = new HashMap<>();
+        Map<Long, Long> lineMinor = new HashMap<>();
+
+        for (int step = 0; step < 5_000; step++) {
+            long laptopId = 1 + random.nextInt(20);
+            if (random.nextInt(10) == 0) {
+                prices.put(laptopId, 100_00L + random.nextInt(300_000));
+            }
+            long price = prices.computeIfAbsent(laptopId, id -> 100_00L + random.nextInt(300_000));
+            if (random.nextInt(3) == 0) {
+                store.remove(CART, laptopId, usd(price));
+                quantities.remove(laptopId);
+                lineMinor.remove(laptopId);
+            } else {
+                int quantity = 1 + random.nextInt(3);
+                store.add(CART, laptopId, quantity, usd(price));
+                quantities.merge(laptopId, quantity, Integer::sum);
+                lineMinor.merge(laptopId, price * quantity, Long::sum);
+            }
+
+            CartSummary summary = store.summary(CART);
+            assertEquals(quantities.size(), summary.lineCount());
+            assertEquals(quantities.values().stream().mapToInt(Integer::intValue).sum(), summary.itemCount());
+            assertEquals(usd(lineMinor.values().stream().mapToLong(Long::longValue).sum()), summary.subtotal());
+            LongIntMap lines = store.get(CART);
+            assertEquals(quantities.size(), lines.size());
+            quantities.forEach((id, quantity) -> assertEquals((int) quantity, lines.get(id)));
+        }
+    }
+
+    @Test
+    void takeRemovesOnlyTheListedQuantitiesAllOrNothing() {
+        store.add(CART, 1L, 3, usd(100_00));
+        store.add(CART, 2L, 1, usd(50_00));
+
+        assertFalse(store.take(CART, List.of(line(1L, 2, 100_00), line(2L, 2, 50_00))));
+        assertEquals(4, store.summary(CART).itemCount());
+
+        assertTrue(store.take(CART, List.of(line(1L, 2, 100_00), line(2L, 1, 50_00))));
+        CartSummary summary = store.summary(CART);
+        assertEquals(1, summary.lineCount());
+        assertEquals(1, summary.itemCount());
+        assertEquals(usd(100_00), summary.subtotal());
+        assertEquals(1, store.get(CART).get(1L));
+
+        assertFalse(store.take(CART, List.of(line(1L, 2, 100_00))));
+        assertFalse(store.take("unknown", List.of(line(1L, 1, 100_00))));
+    }
+
+    private static CartItem line(long laptopId, int quantity, long unitMinor) {
+        return new CartItem(laptopId, "Laptop " + laptopId, "Brand", usd(unitMinor), null, quantity);
+    }
+
+    @Test
+    void concurrentAddsToANewCartAreAllKept() throws InterruptedException {
+        int threads = 8;
+        int addsPerThread = 2_000;
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            long laptopId = 1 + t % 3;
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < addsPerThread; i++) {
+                    store.add(CART, laptopId, 1, usd(10_00));
+                }
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        CartSummary summary = store.summary(CART);
+        assertEquals(3, summary.lineCount());
+        assertEquals(threads * addsPerThread, summary.itemCount());
+        assertEquals(usd(10_00L * threads * addsPerThread), summary.subtotal());
+    }
+
+    private static Money usd(long minorUnits) {
+        return Money.of(minorUnits, Money.DEFAULT_CURRENCY);
+    }
+}
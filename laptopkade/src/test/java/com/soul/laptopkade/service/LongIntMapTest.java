@@ -0,0 +1,102 @@
+package com.soul.laptopkade.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongIntMapTest {
+
+    @Test
+    void addToRemovesTheKeyOnceItReachesZero() {
+        LongIntMap map = new LongIntMap();
+        assertEquals(3, map.addTo(7L, 3));
+        assertEquals(5, map.addTo(7L, 2));
+        assertEquals(0, map.addTo(7L, -5));
+        assertFalse(map.containsKey(7L));
+        assertTrue(map.isEmpty());
+
+        map.put(7L, 4);
+        map.put(7L, 0);
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void rejectsKeysThatAreNotPositive() {
+        LongIntMap map = new LongIntMap();
+        assertThrows(IllegalArgumentException.class, () -> map.put(0L, 1));
+        assertThrows(IllegalArgumentException.class, () -> map.get(-1L));
+    }
+
+    @Test
+    void copyIsIndependent() {
+        LongIntMap map = new LongIntMap();
+        map.put(1L, 1);
+        LongIntMap copy = map.copy();
+        copy.put(2L, 2);
+        map.remove(1L);
+        assertEquals(1, copy.get(1L));
+        assertEquals(2, copy.size());
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    void matchesHashMapUnderRandomOperations() {
+        // a small key range keeps probe runs long, so deletes shift entries and wrap around
+        Random random = new Random(42);
+        LongIntMap map = new LongIntMap();
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int step = 0; step < 200_000; step++) {
+            long key = 1 + random.nextInt(64);
+            switch (random.nextInt(4)) {
+                case 0 -> {
+                    int value = random.nextInt(10) - 2;
+                    map.put(key, value);
+                    if (value > 0) {
+                        expected.put(key, value);
+                    } else {
+                        expected.remove(key);
+                    }
+                }
+                case 1 -> {
+                    int delta = random.nextInt(10) - 4;
+                    int updated = expected.getOrDefault(key, 0) + delta;
+                    if (updated > 0) {
+                        expected.put(key, updated);
+                    } else {
+                        expected.remove(key);
+                    }
+                    assertEquals(Math.max(updated, 0), map.addTo(key, delta));
+                }
+                case 2 -> assertEquals(expected.remove(key) != null, map.remove(key));
+                default -> {
+                    if (random.nextInt(5_000) == 0) {
+                        map.clear();
+                        expected.clear();
+                    }
+                }
+            }
+            if (step % 1_000 == 0) {
+                assertSameEntries(expected, map);
+            }
+        }
+        assertSameEntries(expected, map);
+        assertSameEntries(expected, map.copy());
+    }
+
+    private static void assertSameEntries(Map<Long, Integer> expected, LongIntMap map) {
+        assertEquals(expected.size(), map.size());
+        for (long key = 1; key <= 64; key++) {
+            assertEquals(expected.getOrDefault(key, 0).intValue(), map.get(key));
+        }
+        Map<Long, Integer> seen = new HashMap<>();
+        map.forEach((key, value) -> seen.put(key, value));
+        assertEquals(expected, seen);
+    }
+}
@@ -0,0 +1,136 @@
+package com.soul.laptopkade.service;
+
+import com.soul.laptopkade.config.AdminUserCache;
+import com.soul.laptopkade.model.Money;
+import com.soul.laptopkade.model.Order;
+import com.soul.laptopkade.model.OrderItem;
+import com.soul.laptopkade.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// AdminUserCache backs the JPA listener on Admin, which Hibernate resolves from the context
+@DataJpaTest
+@Import({OrderIntakeService.class, InMemoryCartStore.class, AdminUserCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderIntakeServiceTest {
+
+    private static final Money PRICE = Money.of(99_900, Money.DEFAULT_CURRENCY);
+
+    @Autowired
+    private OrderIntakeService intakeService;
+
+    @Autowired
+    private CartStore cartStore;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @AfterEach
+    void cleanUp() {
+        orderRepository.deleteAll();
+    }
+
+    @Test
+    void orderIsStoredBeforeSubmitReturnsAndOnlyItsLinesLeaveTheCart() throws Exception {
+        String cartId = UUID.randomUUID().toString();
+        String key = UUID.randomUUID().toString();
+        cartStore.add(cartId, 1L, 2, PRICE);
+
+        assertEquals(OrderIntakeService.Submission.QUEUED, intakeService.submit(key, order(), null, cartId));
+        assertTrue(orderRepository.existsByIdempotencyKey(key));
+        // added while the order is still being accepted
+        cartStore.add(cartId, 2L, 1, PRICE);
+
+        assertEquals(Order.ACCEPTED, awaitSettled(key));
+        assertEquals(1, cartStore.get(cartId).get(2L));
+        assertEquals(0, cartStore.get(cartId).get(1L));
+        assertEquals(PRICE, cartStore.summary(cartId).subtotal());
+        assertEquals(OrderIntakeService.Submission.DUPLICATE, intakeService.submit(key, order(), null, cartId));
+        assertEquals(1, orderRepository.count());
+    }
+
+    @Test
+    void theSameCartCannotBeCheckedOutTwice() {
+        String cartId = UUID.randomUUID().toString();
+        cartStore.add(cartId, 1L, 2, PRICE);
+
+        String first = UUID.randomUUID().toString();
+        String second = UUID.randomUUID().toString();
+        assertEquals(OrderIntakeService.Submission.QUEUED, intakeService.submit(first, order(), null, cartId));
+        assertEquals(OrderIntakeService.Submission.CART_CHANGED, intakeService.submit(second, order(), null, cartId));
+
+        assertNull(intakeService.status(second));
+        assertEquals(1, orderRepository.count());
+    }
+
+    @Test
+    void failedOrderKeepsTheCart() {
+        String cartId = UUID.randomUUID().toString();
+        String key = UUID.randomUUID().toString();
+        cartStore.add(cartId, 1L, 2, PRICE);
+
+        // no such user: the insert breaks the user foreign key
+        assertThrows(OrderIntakeService.PlacementFailedException.class,
+                () -> intakeService.submit(key, order(), Long.MAX_VALUE, cartId));
+
+        assertNull(intakeService.status(key));
+        assertEquals(2, cartStore.summary(cartId).itemCount());
+        assertEquals(PRICE.times(2), cartStore.summary(cartId).subtotal());
+        assertEquals(0, orderRepository.count());
+    }
+
+    @Test
+    void ordersLeftNewAreRecovered() {
+        // stored by a node that went down before its workers accepted it
+        Order orphan = order();
+        orphan.setIdempotencyKey(UUID.randomUUID().toString());
+        orphan.setStatus(Order.NEW);
+        orphan.setCreatedAt(LocalDateTime.now().minusHours(1));
+        orderRepository.save(orphan);
+
+        intakeService.recoverStale();
+
+        assertEquals(Order.ACCEPTED, intakeService.status(orphan.getIdempotencyKey()));
+    }
+
+    private String awaitSettled(String key) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        String status = intakeService.status(key);
+        while (Order.NEW.equals(status) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            status = intakeService.status(key);
+        }
+        return status;
+    }
+
+    private static Order order() {
+        Order order = new Order();
+        order.setFullName("Test Customer");
+        order.setPhone("0100000000");
+        order.setAddress("1 Test Road");
+        order.setCity("Dhaka");
+        order.setPostalCode("1207");
+        order.setTotal(PRICE.times(2).toMajor());
+        OrderItem item = new OrderItem();
+        item.setLaptopId(1L);
+        item.setName("Test Laptop");
+        item.setBrand("Test");
+        item.setUnitPrice(PRICE);
+        item.setQuantity(2);
+        order.addItem(item);
+        return order;
+    }
+}
@@ -0,0 +1,120 @@
+package com.soul.laptopkade.service;
+
+import com.soul.laptopkade.config.AdminUserCache;
+import com.soul.laptopkade.model.Money;
+import com.soul.laptopkade.model.Order;
+import com.soul.laptopkade.model.OrderItem;
+import com.soul.laptopkade.model.User;
+import com.soul.laptopkade.repository.AdminOrderRow;
+import com.soul.laptopkade.repository.OrderRepository;
+import com.soul.laptopkade.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@Import({OrderListingService.class, AdminUserCache.class})
+class OrderListingServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    @Autowired
+    private OrderListingService listingService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void cursorsWalkEveryOrderOnceNewestFirstAcrossEqualTimestamps() {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 23; i++) {
+            // runs of up to seven orders share a timestamp, so ties straddle page boundaries;
+            // sub-second times must survive the cursor round trip
+            LocalDateTime createdAt = T0.plusSeconds(i / 7).plusNanos(i % 7 == 6 ? 123_456_000 : 0);
+            orders.add(orderRepository.save(order("Customer " + i, createdAt, 1)));
+        }
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            OrderListingService.OrderPage page = listingService.page(cursor, 5);
+            page.rows().forEach(row -> seen.add(row.id()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        List<Long> expected = orders.stream()
+                .sorted(Comparator.comparing(Order::getCreatedAt).thenComparing(Order::getId).reversed())
+                .map(Order::getId)
+                .toList();
+        assertEquals(expected, seen);
+        assertEquals(5, pages);
+    }
+
+    @Test
+    void rowsCarryItemCountAndAccount() {
+        User user = userRepository.save(new User("jane", "jane@example.com", "secret", null, null, null, null));
+        Order order = order("Jane Doe", T0, 3);
+        order.setUser(user);
+        orderRepository.save(order);
+        orderRepository.save(order("Guest", T0.minusDays(1), 1));
+
+        List<AdminOrderRow> rows = listingService.page(null, 2).rows();
+
+        assertEquals("Jane Doe", rows.get(0).fullName());
+        assertEquals(3, rows.get(0).itemCount());
+        assertEquals("jane", rows.get(0).username());
+        assertEquals(Order.ACCEPTED, rows.get(0).status());
+        assertNull(rows.get(1).username());
+    }
+
+    @Test
+    void lastFullPageHasNoCursor() {
+        orderRepository.save(order("First", T0, 1));
+        orderRepository.save(order("Second", T0.plusMinutes(1), 1));
+
+        OrderListingService.OrderPage page = listingService.page(null, 2);
+        assertEquals(2, page.rows().size());
+        assertNull(page.nextCursor());
+        assertFalse(page.hasMore());
+    }
+
+    @Test
+    void rejectsTamperedCursors() {
+        assertThrows(IllegalArgumentException.class, () -> listingService.page("not a cursor", null));
+        assertThrows(IllegalArgumentException.class, () -> listingService.page("MjAyNC0wMy0wMQ", null));
+    }
+
+    private static Order order(String fullName, LocalDateTime createdAt, int lines) {
+        Order order = new Order();
+        order.setFullName(fullName);
+        order.setTotal(100.0 * lines);
+        order.setStatus(Order.ACCEPTED);
+        order.setCreatedAt(createdAt);
+        for (int i = 0; i < lines; i++) {
+            OrderItem item = new OrderItem();
+            item.setLaptopId(i + 1L);
+            item.setName("XPS 13");
+            item.setBrand("Dell");
+            item.setUnitPrice(Money.of(10_000, Money.DEFAULT_CURRENCY));
+            item.setQuantity(1);
+            order.addItem(item);
+        }
+        return order;
+    }
+}
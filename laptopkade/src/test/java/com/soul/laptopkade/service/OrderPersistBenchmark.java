@@ -0,0 +1,163 @@
+package com.soul.laptopkade.service;
+
+import com.soul.laptopkade.model.Money;
+import com.soul.laptopkade.model.Order;
+import com.soul.laptopkade.model.OrderItem;
+import com.soul.laptopkade.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.h2.tools.Server;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of storing one order with 1, 10 and 50 lines the way checkout does:
+ * persist the {@link Order} through an {@link EntityManager}, let it cascade to its
+ * {@link OrderItem}s, commit. Both mappings use the real entities and the batching
+ * settings from application.properties:
+ * <ul>
+ *   <li>{@code identity} - before: ids overridden to IDENTITY by an orm.xml overlay, so
+ *       Hibernate inserts every row on its own to read the generated key</li>
+ *   <li>{@code sequence} - after: the entities as mapped, ids from pooled sequences
+ *       (allocationSize 50), the order and its lines sent as two JDBC batches</li>
+ * </ul>
+ * {@code transport=tcp} runs H2 as a local server so every statement is a real
+ * round trip; {@code mem} shows the pure statement overhead.
+ * Run with the {@link #main} method (IDE) after {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(1)
+@Fork(1)
+public class OrderPersistBenchmark {
+
+    private static final String IDENTITY_OVERLAY = """
+            <entity-mappings xmlns="https://jakarta.ee/xml/ns/persistence/orm" version="3.1">
+                <entity class="com.soul.laptopkade.model.Order" metadata-complete="false">
+                    <attributes>
+                        <id name="id"><generated-value strategy="IDENTITY"/></id>
+                    </attributes>
+                </entity>
+                <entity class="com.soul.laptopkade.model.OrderItem" metadata-complete="false">
+                    <attributes>
+                        <id name="id"><generated-value strategy="IDENTITY"/></id>
+                    </attributes>
+                </entity>
+            </entity-mappings>
+            """;
+
+    @Param({"1", "10", "50"})
+    private int lines;
+
+    @Param({"identity", "sequence"})
+    private String mapping;
+
+    @Param({"tcp", "mem"})
+    private String transport;
+
+    private Server server;
+    private EntityManagerFactory entityManagerFactory;
+    private long sequence;
+
+    @Setup
+    public void setUp() throws SQLException {
+        String url;
+        if ("tcp".equals(transport)) {
+            server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+            url = "jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:orderbench;DB_CLOSE_DELAY=-1";
+        } else {
+            url = "jdbc:h2:mem:orderbench;DB_CLOSE_DELAY=-1";
+        }
+        Configuration configuration = new Configuration()
+                .addAnnotatedClass(User.class)
+                .addAnnotatedClass(Order.class)
+                .addAnnotatedClass(OrderItem.class)
+                .setProperty("hibernate.connection.url", url)
+                .setProperty("hibernate.connection.username", "sa")
+                .setProperty("hibernate.connection.password", "")
+                // same column names as the application's schema
+                .setProperty("hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName())
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setProperty("hibernate.jdbc.batch_size", "50")
+                .setProperty("hibernate.order_inserts", "true")
+                .setProperty("hibernate.order_updates", "true");
+        if ("identity".equals(mapping)) {
+            configuration.addInputStream(new ByteArrayInputStream(IDENTITY_OVERLAY.getBytes(StandardCharsets.UTF_8)));
+        }
+        entityManagerFactory = configuration.buildSessionFactory();
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManagerFactory.close();
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Benchmark
+    public Long persistOrder() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            Order order = newOrder();
+            entityManager.persist(order);
+            entityManager.getTransaction().commit();
+            return order.getId();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private Order newOrder() {
+        Order order = new Order();
+        order.setFullName("Jane Doe");
+        order.setPhone("+1 555 555 5555");
+        order.setAddress("123 Main St");
+        order.setCity("Springfield");
+        order.setPostalCode("12345");
+        order.setTotal(999.0 * lines);
+        order.setStatus(Order.NEW);
+        order.setIdempotencyKey(Long.toString(++sequence));
+        for (int i = 0; i < lines; i++) {
+            OrderItem item = new OrderItem();
+            item.setLaptopId(i + 1L);
+            item.setName("XPS 13");
+            item.setBrand("Dell");
+            item.setUnitPrice(Money.of(99900, Money.DEFAULT_CURRENCY));
+            item.setQuantity(1);
+            order.addItem(item);
+        }
+        return order;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OrderPersistBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -1,23 +1,49 @@
 package com.soul.api.controller;
 
+import com.soul.api.dto.CatalogStats;
+import com.soul.api.dto.CursorPage;
+import com.soul.api.dto.FacetQuery;
+import com.soul.api.dto.FacetedSearchResult;
+import com.soul.api.dto.ImportResult;
+import com.soul.api.dto.LaptopFilter;
+import com.soul.api.exception.PreconditionFailedException;
+import com.soul.api.exception.ResourceNotFoundException;
 import com.soul.api.model.Laptop;
+import com.soul.api.service.ExportFormat;
 import com.soul.api.service.ILaptopService;
+import com.soul.api.service.LaptopImportService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.ZoneId;
 import java.util.List;
 import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/laptops")
-@CrossOrigin(origins = "*", maxAge = 3600)
+@CrossOrigin(origins = "*", maxAge = 3600, exposedHeaders = {HttpHeaders.ETAG, "Preference-Applied"})
 public class LaptopController {
     
+    // caches may keep catalog responses but must revalidate them with the ETag every time
+    private static final CacheControl REVALIDATE = CacheControl.noCache();
+    
+    // RFC 7240: bulk writers can skip the read-back of the updated laptop
+    private static final String PREFER = "Prefer";
+    private static final String PREFERENCE_APPLIED = "Preference-Applied";
+    private static final String RETURN_MINIMAL = "return=minimal";
+    
     @Autowired
     private ILaptopService laptopService;
     
+    @Autowired
+    private LaptopImportService laptopImportService;
+    
     // ==================== CREATE ====================
     @PostMapping
     public ResponseEntity<Laptop> createLaptop(@RequestBody Laptop laptop) {
@@ -25,18 +51,90 @@ public class LaptopController {
         return new ResponseEntity<>(createdLaptop, HttpStatus.CREATED);
     }
     
+    /**
+     * Bulk upsert from a JSON array, keyed on (brand, model). Invalid rows are reported, not fatal.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ImportResult> importLaptops(@RequestBody List<Laptop> laptops) {
+        ImportResult result = laptopImportService.importLaptops(laptops);
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+    
+    /**
+     * Bulk upsert from CSV with a header row (same columns as the CSV export)
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ImportResult> importLaptopsCsv(@RequestBody String csv) {
+        ImportResult result = laptopImportService.importCsv(csv);
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+    
     // ==================== READ ====================
+    /**
+     * Full catalog with a strong ETag; a matching If-None-Match gets 304 without loading any rows
+     */
     @GetMapping
-    public ResponseEntity<List<Laptop>> getAllLaptops() {
+    public ResponseEntity<List<Laptop>> getAllLaptops(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = laptopService.getCatalogETag();
+        if (matchesETag(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+        }
         List<Laptop> laptops = laptopService.getAllLaptops();
-        return new ResponseEntity<>(laptops, HttpStatus.OK);
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(laptops);
     }
     
+    /**
+     * Keyset-paginated catalog: pass nextCursor from the previous response to get the next page.
+     * Optional filters: brand, minPrice, maxPrice, inStock. Sort by id (default) or price.
+     */
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<Laptop>> getLaptopsPage(
+            LaptopFilter filter,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<Laptop> page = laptopService.getLaptopsPage(filter, sort, cursor, size);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+    
+    /**
+     * Stream the full catalog as NDJSON (default) or CSV for bulk consumers
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportLaptops(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        StreamingResponseBody body = out -> laptopService.exportLaptops(exportFormat, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, exportFormat.getContentType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"laptops." + exportFormat.name().toLowerCase() + "\"")
+                .body(body);
+    }
+    
+    /**
+     * One laptop, tagged with its version and Last-Modified from updated_at.
+     * A conditional request is answered from the version column alone.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<Laptop> getLaptopById(@PathVariable Long id) {
+    public ResponseEntity<Laptop> getLaptopById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Optional<Long> version = laptopService.getLaptopVersion(id);
+            if (version.isPresent() && matchesETag(ifNoneMatch, versionETag(version.get()))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(versionETag(version.get())).cacheControl(REVALIDATE).build();
+            }
+        }
         Optional<Laptop> laptop = laptopService.getLaptopById(id);
         if (laptop.isPresent()) {
-            return new ResponseEntity<>(laptop.get(), HttpStatus.OK);
+            ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+                    .eTag(versionETag(laptop.get().getVersion())).cacheControl(REVALIDATE);
+            if (laptop.get().getUpdatedAt() != null) {
+                ok.lastModified(laptop.get().getUpdatedAt().atZone(ZoneId.systemDefault()));
+            }
+            return ok.body(laptop.get());
         }
         return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
@@ -73,6 +171,41 @@ public class LaptopController {
         return new ResponseEntity<>(laptops, HttpStatus.OK);
     }
     
+    /**
+     * Laptops by RAM, in GB, on the indexed ram_mb column
+     * GET /api/laptops/ram/range?minGb=16
+     */
+    @GetMapping("/ram/range")
+    public ResponseEntity<List<Laptop>> getLaptopsByRamRange(
+            @RequestParam(required = false) Integer minGb,
+            @RequestParam(required = false) Integer maxGb) {
+        List<Laptop> laptops = laptopService.getLaptopsByRamRange(minGb, maxGb);
+        return new ResponseEntity<>(laptops, HttpStatus.OK);
+    }
+    
+    /**
+     * Laptops by total storage, in GB, optionally of one type (SSD, HDD, EMMC, HYBRID)
+     * GET /api/laptops/storage/range?minGb=512&maxGb=1024&type=SSD
+     */
+    @GetMapping("/storage/range")
+    public ResponseEntity<List<Laptop>> getLaptopsByStorageRange(
+            @RequestParam(required = false) Integer minGb,
+            @RequestParam(required = false) Integer maxGb,
+            @RequestParam(required = false) String type) {
+        List<Laptop> laptops = laptopService.getLaptopsByStorageRange(minGb, maxGb, type);
+        return new ResponseEntity<>(laptops, HttpStatus.OK);
+    }
+    
+    /**
+     * Faceted search: any combination of brand, processor, ram, storage, graphicsCard
+     * (repeat a parameter to OR values), minPrice/maxPrice and inStock, with per-facet counts
+     * GET /api/laptops/facets?brand=Dell&brand=HP&ram=16GB&maxPrice=1500&inStock=true&page=0&size=20
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<FacetedSearchResult> facetedSearch(FacetQuery query) {
+        return new ResponseEntity<>(laptopService.facetedSearch(query), HttpStatus.OK);
+    }
+    
     @GetMapping("/search")
     public ResponseEntity<List<Laptop>> searchLaptops(@RequestParam String keyword) {
         List<Laptop> laptops = laptopService.searchLaptops(keyword);
@@ -92,6 +225,14 @@ public class LaptopController {
     }
     
     // ==================== STATISTICS ====================
+    /**
+     * Count, average, min/max and price histogram in one response
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<CatalogStats> getCatalogStats() {
+        return new ResponseEntity<>(laptopService.getCatalogStats(), HttpStatus.OK);
+    }
+    
     @GetMapping("/stats/total-count")
     public ResponseEntity<Long> getTotalLaptopCount() {
         long count = laptopService.getTotalLaptopCount();
@@ -117,22 +258,57 @@ public class LaptopController {
     }
     
     // ==================== UPDATE ====================
+    /**
+     * Send If-Match with the ETag from GET /{id}: 412 if the laptop changed since, 409 if it
+     * changes while this update runs. Without If-Match the update applies to whatever is current.
+     */
     @PutMapping("/{id}")
-    public ResponseEntity<Laptop> updateLaptop(@PathVariable Long id, @RequestBody Laptop laptopDetails) {
-        Laptop updatedLaptop = laptopService.updateLaptop(id, laptopDetails);
-        return new ResponseEntity<>(updatedLaptop, HttpStatus.OK);
+    public ResponseEntity<Laptop> updateLaptop(
+            @PathVariable Long id,
+            @RequestBody Laptop laptopDetails,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Laptop updatedLaptop = laptopService.updateLaptop(id, laptopDetails, ifMatchVersion(id, ifMatch));
+        return ResponseEntity.ok().eTag(versionETag(updatedLaptop.getVersion())).body(updatedLaptop);
     }
     
+    /**
+     * One UPDATE statement, no read first. Honors If-Match like PUT; with
+     * {@code Prefer: return=minimal} answers 204 without reading the laptop back.
+     */
     @PatchMapping("/{id}/stock")
-    public ResponseEntity<Laptop> updateLaptopStock(@PathVariable Long id, @RequestParam Integer stock) {
-        Laptop updatedLaptop = laptopService.updateLaptopStock(id, stock);
-        return new ResponseEntity<>(updatedLaptop, HttpStatus.OK);
+    public ResponseEntity<Laptop> updateLaptopStock(
+            @PathVariable Long id,
+            @RequestParam Integer stock,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = PREFER, required = false) String prefer) {
+        Long version = laptopService.updateLaptopStock(id, stock, ifMatchVersion(id, ifMatch));
+        return patched(id, version, prefer);
     }
     
+    /**
+     * One UPDATE statement, no read first; same If-Match and Prefer handling as the stock PATCH
+     */
     @PatchMapping("/{id}/price")
-    public ResponseEntity<Laptop> updateLaptopPrice(@PathVariable Long id, @RequestParam Double price) {
-        Laptop updatedLaptop = laptopService.updateLaptopPrice(id, price);
-        return new ResponseEntity<>(updatedLaptop, HttpStatus.OK);
+    public ResponseEntity<Laptop> updateLaptopPrice(
+            @PathVariable Long id,
+            @RequestParam Double price,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = PREFER, required = false) String prefer) {
+        Long version = laptopService.updateLaptopPrice(id, price, ifMatchVersion(id, ifMatch));
+        return patched(id, version, prefer);
+    }
+    
+    private ResponseEntity<Laptop> patched(Long id, Long version, String prefer) {
+        if (prefer != null && prefer.contains(RETURN_MINIMAL)) {
+            ResponseEntity.HeadersBuilder<?> noContent = ResponseEntity.noContent().header(PREFERENCE_APPLIED, RETURN_MINIMAL);
+            if (version != null) {
+                noContent.eTag(versionETag(version));
+            }
+            return noContent.build();
+        }
+        Laptop laptop = laptopService.getLaptopById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Laptop", "id", id));
+        return ResponseEntity.ok().eTag(versionETag(laptop.getVersion())).body(laptop);
     }
     
     // ==================== DELETE ====================
@@ -151,6 +327,48 @@ public class LaptopController {
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
     
+    private static String versionETag(Long version) {
+        return "\"" + version + "\"";
+    }
+    
+    /**
+     * Version named by If-Match, or null when absent or "*". If-Match uses the strong
+     * comparison, so a weak or unparseable tag can never match.
+     */
+    private static Long ifMatchVersion(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.valueOf(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // falls through to the mismatch below
+            }
+        }
+        throw new PreconditionFailedException(id, tag);
+    }
+    
+    /**
+     * If-None-Match uses the weak comparison: W/ prefixes are ignored and * matches anything
+     */
+    private static boolean matchesETag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
     // ==================== HEALTH CHECK ====================
     @GetMapping("/health")
     public ResponseEntity<String> health() {
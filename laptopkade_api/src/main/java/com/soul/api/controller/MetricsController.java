@@ -0,0 +1,25 @@
+package com.soul.api.controller;
+
+import com.soul.shared.security.PasswordHashingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/metrics")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class MetricsController {
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    /**
+     * Password hashing pool queue depth, rejections and latency
+     * GET /api/metrics/password-hashing
+     */
+    @GetMapping("/password-hashing")
+    public ResponseEntity<PasswordHashingService.Stats> passwordHashingStats() {
+        return new ResponseEntity<>(passwordHashingService.getStats(), HttpStatus.OK);
+    }
+}
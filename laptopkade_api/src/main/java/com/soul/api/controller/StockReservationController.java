@@ -0,0 +1,46 @@
+package com.soul.api.controller;
+
+import com.soul.api.model.StockReservation;
+import com.soul.api.service.StockReservationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/reservations")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class StockReservationController {
+
+    @Autowired
+    private StockReservationService reservationService;
+
+    /**
+     * Hold stock for a checkout
+     * POST /api/reservations?laptopId=1&quantity=2
+     */
+    @PostMapping
+    public ResponseEntity<StockReservation> reserve(@RequestParam Long laptopId,
+                                                    @RequestParam(defaultValue = "1") Integer quantity) {
+        StockReservation reservation = reservationService.reserve(laptopId, quantity);
+        return new ResponseEntity<>(reservation, HttpStatus.CREATED);
+    }
+
+    /**
+     * Confirm a held reservation once the order is placed
+     * POST /api/reservations/{id}/confirm
+     */
+    @PostMapping("/{id}/confirm")
+    public ResponseEntity<StockReservation> confirm(@PathVariable Long id) {
+        return new ResponseEntity<>(reservationService.confirm(id), HttpStatus.OK);
+    }
+
+    /**
+     * Release a held reservation and return its stock
+     * DELETE /api/reservations/{id}
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<StockReservation> release(@PathVariable Long id) {
+        return new ResponseEntity<>(reservationService.release(id), HttpStatus.OK);
+    }
+}
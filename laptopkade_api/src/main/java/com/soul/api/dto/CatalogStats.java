@@ -0,0 +1,24 @@
+package com.soul.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * All catalog statistics in one response, read from memory
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogStats {
+    private long totalCount;
+    private double averagePrice;
+    private Double minPrice;
+    private Long leastExpensiveId;
+    private Double maxPrice;
+    private Long mostExpensiveId;
+    private List<PriceBucket> priceHistogram;
+    private long revision;
+}
@@ -0,0 +1,27 @@
+package com.soul.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Faceted search request. Values within one dimension are OR'ed (brand=Dell&brand=HP),
+ * dimensions are AND'ed. Text values match case-insensitively.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetQuery {
+    private List<String> brand;
+    private List<String> processor;
+    private List<String> ram;
+    private List<String> storage;
+    private List<String> graphicsCard;
+    private Double minPrice;
+    private Double maxPrice;
+    private Boolean inStock;
+    private Integer page;
+    private Integer size;
+}
@@ -0,0 +1,24 @@
+package com.soul.api.dto;
+
+import com.soul.api.model.Laptop;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of faceted search hits plus, per dimension, how many hits each value
+ * would have if selected (counted with that dimension's own selection left out)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetedSearchResult {
+    private List<Laptop> content;
+    private long total;
+    private int page;
+    private int size;
+    private Map<String, List<FacetCount>> facets;
+}
@@ -0,0 +1,18 @@
+package com.soul.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResult {
+    private int totalRows;
+    private int imported;
+    private int failed;
+    private long elapsedMs;
+    private List<ImportRowError> errors;
+}
@@ -0,0 +1,15 @@
+package com.soul.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LaptopFilter {
+    private String brand;
+    private Double minPrice;
+    private Double maxPrice;
+    private Boolean inStock;
+}
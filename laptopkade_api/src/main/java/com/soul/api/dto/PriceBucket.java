@@ -0,0 +1,17 @@
+package com.soul.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One price histogram bucket: {@code from} inclusive, {@code to} exclusive (null = open-ended)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceBucket {
+    private Double from;
+    private Double to;
+    private long count;
+}
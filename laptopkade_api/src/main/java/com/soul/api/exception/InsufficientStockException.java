@@ -0,0 +1,10 @@
+package com.soul.api.exception;
+
+public class InsufficientStockException extends RuntimeException {
+    
+    private static final long serialVersionUID = 1L;
+
+    public InsufficientStockException(Long laptopId, int requested) {
+        super(String.format("Insufficient stock for laptop %d : requested %d", laptopId, requested));
+    }
+}
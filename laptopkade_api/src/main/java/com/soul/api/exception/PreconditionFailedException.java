@@ -0,0 +1,14 @@
+package com.soul.api.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+    
+    private static final long serialVersionUID = 1L;
+
+    public PreconditionFailedException(Long laptopId, Long expectedVersion) {
+        super(String.format("Laptop %d has changed since version %d; fetch it again and retry", laptopId, expectedVersion));
+    }
+
+    public PreconditionFailedException(Long laptopId, String ifMatch) {
+        super(String.format("If-Match %s is not a current ETag of laptop %d", ifMatch, laptopId));
+    }
+}
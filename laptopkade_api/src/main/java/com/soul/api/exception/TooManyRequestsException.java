@@ -0,0 +1,10 @@
+package com.soul.api.exception;
+
+public class TooManyRequestsException extends RuntimeException {
+    
+    private static final long serialVersionUID = 1L;
+
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,29 @@
+package com.soul.api.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The single row of catalog_revision: a counter that every write to the laptops
+ * table increments in its own transaction
+ */
+@Entity
+@Table(name = "catalog_revision")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogRevision {
+
+    public static final long ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long revision;
+}
@@ -5,8 +5,16 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
 @Entity
-@Table(name = "laptops")
+@Table(name = "laptops", uniqueConstraints = @UniqueConstraint(name = "unique_laptop", columnNames = {"brand", "model"}),
+        indexes = {
+                @Index(name = "idx_laptops_ram_mb", columnList = "ram_mb"),
+                @Index(name = "idx_laptops_storage", columnList = "storage_type, storage_gb"),
+                @Index(name = "idx_laptops_storage_gb", columnList = "storage_gb")
+        })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -34,6 +42,16 @@ public class Laptop {
     @Column(nullable = false)
     private String graphicsCard;
     
+    // Parsed from ram/storage by the service on every write; null when the text has no recognizable capacity
+    @Column(name = "ram_mb")
+    private Integer ramMb;
+    
+    @Column(name = "storage_gb")
+    private Integer storageGb;
+    
+    @Column(name = "storage_type", length = 16)
+    private String storageType;
+    
     @Column(nullable = false)
     private Double price;
     
@@ -42,4 +60,21 @@ public class Laptop {
     
     @Column(length = 1000)
     private String description;
+    
+    // Optimistic lock; also the ETag of GET /api/laptops/{id} and what If-Match is compared with.
+    // Bulk statements (reservations, targeted PATCHes, import upsert) increment it in SQL.
+    @Version
+    @Column(nullable = false)
+    private Long version;
+    
+    // Last write to this row; bulk statements (stock reservations, import upsert) set it in SQL
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        // microseconds, the precision MySQL keeps, so the value read back equals the one written
+        updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
 }
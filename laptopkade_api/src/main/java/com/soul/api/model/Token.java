@@ -1,5 +1,6 @@
 package com.soul.api.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -7,7 +8,10 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tokens")
+@Table(name = "tokens", indexes = {
+        @Index(name = "idx_token_hash", columnList = "tokenHash", unique = true),
+        @Index(name = "idx_token_expires_at", columnList = "expiresAt")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -20,6 +24,11 @@ public class Token {
     @Column(nullable = false, columnDefinition = "LONGTEXT")
     private String tokenValue;
     
+    // hex SHA-256 of tokenValue; fixed width so lookups use the unique index
+    @Column(length = 64, columnDefinition = "CHAR(64)")
+    private String tokenHash;
+    
+    @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
@@ -1,5 +1,6 @@
 package com.soul.api.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -32,6 +33,8 @@ public class User {
     @Column(name = "created_at")
     private String createdAt;
     
+    // not serialized: loading it would need an open session after the service returns
+    @JsonIgnore
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Token> tokens;
 }
@@ -0,0 +1,21 @@
+package com.soul.api.repository;
+
+import com.soul.api.model.CatalogRevision;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CatalogRevisionRepository extends JpaRepository<CatalogRevision, Long> {
+
+    // pending laptop changes are flushed first, so the revision row is always locked after the laptop rows
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE CatalogRevision r SET r.revision = r.revision + 1 WHERE r.id = 1")
+    int increment();
+
+    @Query("SELECT r.revision FROM CatalogRevision r WHERE r.id = 1")
+    Optional<Long> findCurrent();
+}
@@ -0,0 +1,15 @@
+package com.soul.api.repository;
+
+/**
+ * Projection used to build the facet index without reading descriptions
+ */
+public interface LaptopFacetView {
+    Long getId();
+    String getBrand();
+    String getProcessor();
+    String getRam();
+    String getStorage();
+    String getGraphicsCard();
+    Double getPrice();
+    Integer getStock();
+}
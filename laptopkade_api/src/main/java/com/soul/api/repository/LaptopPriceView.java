@@ -0,0 +1,9 @@
+package com.soul.api.repository;
+
+/**
+ * Projection used to rebuild catalog statistics without loading full laptop rows
+ */
+public interface LaptopPriceView {
+    Long getId();
+    Double getPrice();
+}
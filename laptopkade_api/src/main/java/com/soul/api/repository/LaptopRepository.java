@@ -1,13 +1,19 @@
 package com.soul.api.repository;
 
 import com.soul.api.model.Laptop;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface LaptopRepository extends JpaRepository<Laptop, Long> {
@@ -37,5 +43,81 @@ public interface LaptopRepository extends JpaRepository<Laptop, Long> {
     
     @Query("SELECT l FROM Laptop l ORDER BY l.price ASC LIMIT 1")
     Optional<Laptop> getLeastExpensiveLaptop();
+    
+    @Query("SELECT l.id AS id, l.price AS price FROM Laptop l")
+    List<LaptopPriceView> findAllPrices();
+    
+    @Query("SELECT l.id AS id, l.brand AS brand, l.processor AS processor, l.ram AS ram, l.storage AS storage, "
+            + "l.graphicsCard AS graphicsCard, l.price AS price, l.stock AS stock FROM Laptop l ORDER BY l.id ASC")
+    List<LaptopFacetView> findAllFacetRows();
+    
+    // Range filters on the normalized spec columns; each is served by its own index
+    List<Laptop> findByRamMbBetweenOrderByRamMbAscIdAsc(Integer minRamMb, Integer maxRamMb);
+    
+    List<Laptop> findByStorageGbBetweenOrderByStorageGbAscIdAsc(Integer minStorageGb, Integer maxStorageGb);
+    
+    List<Laptop> findByStorageTypeAndStorageGbBetweenOrderByStorageGbAscIdAsc(String storageType,
+                                                                             Integer minStorageGb,
+                                                                             Integer maxStorageGb);
+    
+    @Query("SELECT l FROM Laptop l WHERE l.id > :afterId AND (l.ramMb IS NULL OR l.storageGb IS NULL) ORDER BY l.id ASC")
+    List<Laptop> findSpecBackfillPage(@Param("afterId") Long afterId, Pageable pageable);
+    
+    // Keyset pagination: seek past the last row of the previous page instead of using OFFSET
+    @Query("SELECT l FROM Laptop l WHERE l.id > :afterId " + PAGE_FILTER + " ORDER BY l.id ASC")
+    List<Laptop> findPageOrderById(@Param("afterId") Long afterId,
+                                   @Param("brand") String brand,
+                                   @Param("minPrice") Double minPrice,
+                                   @Param("maxPrice") Double maxPrice,
+                                   @Param("inStock") Boolean inStock,
+                                   Pageable pageable);
+    
+    @Query("SELECT l FROM Laptop l WHERE (l.price > :afterPrice OR (l.price = :afterPrice AND l.id > :afterId)) "
+            + PAGE_FILTER + " ORDER BY l.price ASC, l.id ASC")
+    List<Laptop> findPageOrderByPrice(@Param("afterPrice") Double afterPrice,
+                                      @Param("afterId") Long afterId,
+                                      @Param("brand") String brand,
+                                      @Param("minPrice") Double minPrice,
+                                      @Param("maxPrice") Double maxPrice,
+                                      @Param("inStock") Boolean inStock,
+                                      Pageable pageable);
+    
+    // Atomic conditional decrement: succeeds (returns 1) only if enough stock is left
+    @Modifying
+    @Query("UPDATE Laptop l SET l.stock = l.stock - :quantity, l.version = l.version + 1, l.updatedAt = LOCAL DATETIME WHERE l.id = :id AND l.stock >= :quantity")
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+    
+    @Modifying
+    @Query("UPDATE Laptop l SET l.stock = l.stock + :quantity, l.version = l.version + 1, l.updatedAt = LOCAL DATETIME WHERE l.id = :id")
+    int incrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+    
+    // Targeted single-statement updates: no prior read. A null version updates unconditionally,
+    // otherwise the row must still be at that version (If-Match). Return 0 if nothing matched.
+    @Modifying
+    @Query("UPDATE Laptop l SET l.stock = :stock, l.version = l.version + 1, l.updatedAt = LOCAL DATETIME "
+            + "WHERE l.id = :id AND (:version IS NULL OR l.version = :version)")
+    int updateStock(@Param("id") Long id, @Param("stock") Integer stock, @Param("version") Long version);
+    
+    @Modifying
+    @Query("UPDATE Laptop l SET l.price = :price, l.version = l.version + 1, l.updatedAt = LOCAL DATETIME "
+            + "WHERE l.id = :id AND (:version IS NULL OR l.version = :version)")
+    int updatePrice(@Param("id") Long id, @Param("price") Double price, @Param("version") Long version);
+    
+    @Query("SELECT l.version FROM Laptop l WHERE l.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // Streams rows for the export; Integer.MIN_VALUE tells MySQL Connector/J to stream row by row
+    // instead of buffering the whole result set. Must be consumed inside a transaction.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT l FROM Laptop l ORDER BY l.id ASC")
+    Stream<Laptop> streamAllOrderById();
+    
+    String PAGE_FILTER = "AND (:brand IS NULL OR l.brand = :brand) "
+            + "AND (:minPrice IS NULL OR l.price >= :minPrice) "
+            + "AND (:maxPrice IS NULL OR l.price <= :maxPrice) "
+            + "AND (:inStock IS NULL OR (:inStock = TRUE AND l.stock > 0) OR (:inStock = FALSE AND l.stock <= 0))";
 }
 
@@ -0,0 +1,11 @@
+package com.soul.api.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection used to load revocations without reading the LONGTEXT token value
+ */
+public interface RevokedTokenView {
+    String getTokenHash();
+    LocalDateTime getExpiresAt();
+}
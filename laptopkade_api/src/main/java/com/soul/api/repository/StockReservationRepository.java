@@ -0,0 +1,22 @@
+package com.soul.api.repository;
+
+import com.soul.api.model.StockReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+    
+    List<StockReservation> findByStatusAndExpiresAtBefore(String status, LocalDateTime time);
+    
+    // Compare-and-set on status so a reservation is confirmed, released or expired exactly once
+    @Modifying
+    @Query("UPDATE StockReservation r SET r.status = :to WHERE r.id = :id AND r.status = :from")
+    int transition(@Param("id") Long id, @Param("from") String from, @Param("to") String to);
+}
@@ -3,15 +3,19 @@ package com.soul.api.repository;
 import com.soul.api.model.Token;
 import com.soul.api.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TokenRepository extends JpaRepository<Token, Long> {
     
-    Optional<Token> findByTokenValue(String tokenValue);
+    Optional<Token> findByTokenHash(String tokenHash);
     
     List<Token> findByUser(User user);
     
@@ -20,4 +24,13 @@ public interface TokenRepository extends JpaRepository<Token, Long> {
     List<Token> findByUserIdAndRevokedFalse(Long userId);
     
     void deleteByUser(User user);
+    
+    List<RevokedTokenView> findByRevokedTrueAndExpiresAtAfter(LocalDateTime time);
+    
+    // Rows written before token_hash existed, for the backfill
+    List<Token> findTop500ByTokenHashIsNull();
+    
+    @Modifying
+    @Query("DELETE FROM Token t WHERE t.expiresAt < :cutoff")
+    int deleteExpiredBefore(@Param("cutoff") LocalDateTime cutoff);
 }
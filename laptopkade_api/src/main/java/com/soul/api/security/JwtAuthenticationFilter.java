@@ -20,6 +20,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private JwtTokenProvider tokenProvider;
 
+    @Autowired
+    private TokenRevocationCache revocationCache;
+
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, 
             @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
@@ -31,8 +34,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
+            JwtTokenProvider.VerifiedToken verified = StringUtils.hasText(jwt) ? tokenProvider.verify(jwt) : null;
+
+            if (verified != null && !revocationCache.isRevoked(verified.tokenHash())) {
+                String username = verified.username();
 
                 UsernamePasswordAuthenticationToken authentication = 
                     new UsernamePasswordAuthenticationToken(username, null, new ArrayList<>());
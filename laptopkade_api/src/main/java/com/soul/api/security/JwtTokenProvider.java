@@ -1,14 +1,20 @@
 package com.soul.api.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.UUID;
 
 @Component
 public class JwtTokenProvider {
@@ -19,6 +25,35 @@ public class JwtTokenProvider {
     @Value("${app.jwt.expiration:86400000}")
     private long jwtExpiration;
 
+    @Value("${app.jwt.verify-cache-size:10000}")
+    private int verifyCacheSize;
+
+    // Built once: the key and parser are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // token hash -> verified principal, least recently used evicted first
+    private Map<String, VerifiedToken> verifiedTokens;
+
+    /**
+     * A token whose signature and expiry have been checked
+     */
+    public record VerifiedToken(String username, long expiresAtMillis, String tokenHash) {
+    }
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        parser = Jwts.parser().verifyWith(signingKey).build();
+        int capacity = verifyCacheSize;
+        verifiedTokens = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
     /**
      * Generate JWT token for a user
      */
@@ -29,54 +64,84 @@ public class JwtTokenProvider {
     }
 
     /**
-     * Create JWT token with claims
+     * Create JWT token with claims. The random jti keeps two tokens issued to the same
+     * user within one second (iat and exp have second resolution) from being identical,
+     * so every token has its own row under the unique token_hash index.
      */
     private String createToken(Map<String, Object> claims, String subject) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpiration);
 
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-
         return Jwts.builder()
                 .claims(claims)
+                .id(UUID.randomUUID().toString())
                 .subject(subject)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(key)
+                .signWith(signingKey)
                 .compact();
     }
 
     /**
-     * Get username from JWT token
+     * Verify a token once and return its principal, or null if it is invalid or expired.
+     * Recently verified tokens are answered from an LRU cache until their exp.
      */
-    public String getUsernameFromToken(String token) {
+    public VerifiedToken verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        String key = TokenHashing.sha256Hex(token);
+        VerifiedToken cached;
+        synchronized (verifiedTokens) {
+            cached = verifiedTokens.get(key);
+        }
+        if (cached != null) {
+            if (cached.expiresAtMillis() > System.currentTimeMillis()) {
+                return cached;
+            }
+            synchronized (verifiedTokens) {
+                verifiedTokens.remove(key);
+            }
+            return null;
+        }
+
+        Claims claims = parseClaims(token);
+        if (claims == null) {
+            return null;
+        }
+        Date expiration = claims.getExpiration();
+        VerifiedToken verified = new VerifiedToken(claims.getSubject(),
+                expiration != null ? expiration.getTime() : Long.MAX_VALUE, key);
+        synchronized (verifiedTokens) {
+            verifiedTokens.put(key, verified);
+        }
+        return verified;
+    }
+
+    /**
+     * Parse and verify a token with the shared parser; null if invalid
+     */
+    public Claims parseClaims(String token) {
         try {
-            SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-            return Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload()
-                    .getSubject();
-        } catch (Exception e) {
+            return parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
             return null;
         }
     }
 
+    /**
+     * Get username from JWT token
+     */
+    public String getUsernameFromToken(String token) {
+        VerifiedToken verified = verify(token);
+        return verified != null ? verified.username() : null;
+    }
+
     /**
      * Validate JWT token
      */
     public boolean validateToken(String token) {
-        try {
-            SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-            Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
+        return verify(token) != null;
     }
 
     /**
@@ -1,5 +1,9 @@
 package com.soul.api.security;
 
+import com.soul.api.exception.TooManyRequestsException;
+import com.soul.shared.security.PasswordEncoderFactory;
+import com.soul.shared.security.PasswordHashingService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -7,7 +11,6 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -16,6 +19,29 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @EnableWebSecurity
 public class SecurityConfig {
 
+    // 0 calibrates the cost at startup against bcrypt-target-ms
+    @Value("${app.auth.bcrypt-cost:0}")
+    private int bcryptCost;
+
+    @Value("${app.auth.bcrypt-target-ms:100}")
+    private long bcryptTargetMillis;
+
+    @Value("${app.auth.bcrypt-min-cost:10}")
+    private int bcryptMinCost;
+
+    @Value("${app.auth.bcrypt-max-cost:14}")
+    private int bcryptMaxCost;
+
+    // 0 means one thread per available core
+    @Value("${app.auth.hash-threads:0}")
+    private int hashThreads;
+
+    @Value("${app.auth.hash-queue-capacity:64}")
+    private int hashQueueCapacity;
+
+    @Value("${app.auth.hash-timeout-ms:2000}")
+    private long hashTimeoutMs;
+
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
         return new JwtAuthenticationFilter();
@@ -23,7 +49,16 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return PasswordEncoderFactory.create(bcryptCost, bcryptTargetMillis, bcryptMinCost, bcryptMaxCost);
+    }
+
+    /**
+     * Bounded pool for password hashing; overflow surfaces as TooManyRequestsException (429)
+     */
+    @Bean(destroyMethod = "shutdown")
+    public PasswordHashingService passwordHashingService(PasswordEncoder passwordEncoder) {
+        return new PasswordHashingService(passwordEncoder, hashThreads, hashQueueCapacity, hashTimeoutMs,
+                () -> new TooManyRequestsException("Too many authentication requests, please retry shortly"));
     }
 
     @Bean
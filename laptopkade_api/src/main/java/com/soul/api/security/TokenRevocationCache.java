@@ -0,0 +1,155 @@
+package com.soul.api.security;
+
+import com.soul.api.repository.RevokedTokenView;
+import com.soul.api.repository.TokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory set of revoked tokens, so the authentication filter can reject them
+ * without querying the tokens table on every request.
+ * <p>
+ * A Bloom filter answers the common "never revoked" case with a few bit probes;
+ * only probable hits consult the concurrent map of token hash to expiry. Entries
+ * are purged once the token would have expired anyway, and the filter is rebuilt
+ * from the map so it does not fill up over time.
+ */
+@Component
+public class TokenRevocationCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationCache.class);
+
+    @Autowired
+    private TokenRepository tokenRepository;
+
+    @Value("${app.jwt.revocation-bloom-size:100000}")
+    private int expectedRevocations;
+
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter bloom = new BloomFilter(1024);
+
+    /**
+     * Load revoked, not yet expired tokens at startup
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        refresh();
+        logger.info("Loaded {} revoked tokens into revocation cache", revoked.size());
+    }
+
+    /**
+     * Periodically drop expired entries and pick up revocations made on other nodes
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.revocation-refresh-ms:300000}", initialDelayString = "${app.jwt.revocation-refresh-ms:300000}")
+    @Transactional(readOnly = true)
+    public void refresh() {
+        long now = System.currentTimeMillis();
+        List<RevokedTokenView> tokens = tokenRepository.findByRevokedTrueAndExpiresAtAfter(LocalDateTime.now());
+        for (RevokedTokenView token : tokens) {
+            if (token.getTokenHash() != null) {
+                revoked.put(token.getTokenHash(), toMillis(token.getExpiresAt()));
+            }
+        }
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedRevocations, revoked.size() * 2));
+        revoked.keySet().forEach(rebuilt::add);
+        bloom = rebuilt;
+        // a revoke() racing with the swap may have only reached the old filter
+        revoked.keySet().forEach(rebuilt::add);
+    }
+
+    /**
+     * Record a revocation; the entry is kept until the token's own expiry
+     */
+    public void revoke(String tokenHash, LocalDateTime expiresAt) {
+        long expiresAtMillis = toMillis(expiresAt);
+        if (expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        revoked.put(tokenHash, expiresAtMillis);
+        bloom.add(tokenHash);
+    }
+
+    /**
+     * O(1) check used on every authenticated request
+     */
+    public boolean isRevoked(String tokenHash) {
+        if (!bloom.mightContain(tokenHash)) {
+            return false;
+        }
+        Long expiresAt = revoked.get(tokenHash);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Fixed-size Bloom filter over hex SHA-256 token hashes (1% false positives at capacity).
+     * The hash is already uniformly distributed, so its first two 64-bit words serve as the
+     * two base hashes for double hashing.
+     */
+    private static final class BloomFilter {
+        private static final int HASHES = 7;
+
+        private final AtomicLongArray bits;
+        private final long bitCount;
+
+        BloomFilter(int expectedInsertions) {
+            long m = (long) Math.ceil(-expectedInsertions * Math.log(0.01) / (Math.log(2) * Math.log(2)));
+            int words = (int) Math.max(1, (m + 63) / 64);
+            this.bits = new AtomicLongArray(words);
+            this.bitCount = (long) words * 64;
+        }
+
+        void add(String hexHash) {
+            long h1 = Long.parseUnsignedLong(hexHash, 0, 16, 16);
+            long h2 = Long.parseUnsignedLong(hexHash, 16, 32, 16);
+            for (int i = 0; i < HASHES; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = bits.get(word);
+                    if ((current & mask) != 0) {
+                        break;
+                    }
+                } while (!bits.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(String hexHash) {
+            long h1 = Long.parseUnsignedLong(hexHash, 0, 16, 16);
+            long h2 = Long.parseUnsignedLong(hexHash, 16, 32, 16);
+            for (int i = 0; i < HASHES; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
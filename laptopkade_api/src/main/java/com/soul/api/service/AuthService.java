@@ -4,22 +4,34 @@ import com.soul.api.dto.JwtResponse;
 import com.soul.api.dto.LoginRequest;
 import com.soul.api.dto.SignupRequest;
 import com.soul.api.exception.ResourceNotFoundException;
+import com.soul.api.exception.TooManyRequestsException;
 import com.soul.api.model.Token;
 import com.soul.api.model.User;
 import com.soul.api.repository.TokenRepository;
 import com.soul.api.repository.UserRepository;
 import com.soul.api.security.JwtTokenProvider;
+import com.soul.api.security.TokenHashing;
+import com.soul.api.security.TokenRevocationCache;
+import com.soul.shared.security.PasswordHashingService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Date;
 
+/**
+ * Signup, login and token bookkeeping.
+ * <p>
+ * Password hashing waits on the bounded hashing pool for up to its timeout, so it
+ * never runs inside a transaction: login reads the user, verifies the password with
+ * no connection held, then writes the token (and any rehash) in one short
+ * transaction. A login burst then queues on the hashing pool, not on the
+ * connection pool the catalog reads from.
+ */
 @Service
-@Transactional
 public class AuthService {
 
     @Autowired
@@ -32,7 +44,13 @@ public class AuthService {
     private JwtTokenProvider jwtTokenProvider;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private TokenRevocationCache revocationCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
 
     /**
      * Register a new user
@@ -60,11 +78,14 @@ public class AuthService {
             throw new IllegalArgumentException("Email already registered");
         }
 
+        // Hash before the insert's transaction opens
+        String encodedPassword = passwordHashingService.encode(signupRequest.getPassword());
+
         // Create new user
         User user = new User();
         user.setUsername(signupRequest.getUsername());
         user.setEmail(signupRequest.getEmail());
-        user.setPassword(passwordEncoder.encode(signupRequest.getPassword()));
+        user.setPassword(encodedPassword);
         user.setEnabled(true);
         user.setCreatedAt(LocalDateTime.now().toString());
 
@@ -88,7 +109,7 @@ public class AuthService {
                 .orElseThrow(() -> new ResourceNotFoundException("User", "username", loginRequest.getUsername()));
 
         // Validate password
-        if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
+        if (!passwordHashingService.matches(loginRequest.getPassword(), user.getPassword())) {
             throw new IllegalArgumentException("Invalid credentials");
         }
 
@@ -96,30 +117,52 @@ public class AuthService {
             throw new IllegalArgumentException("User account is disabled");
         }
 
+        // Move the stored hash to the current encoder cost while we have the raw password
+        String rehashed = null;
+        if (passwordHashingService.needsRehash(user.getPassword())) {
+            try {
+                rehashed = passwordHashingService.encode(loginRequest.getPassword());
+            } catch (TooManyRequestsException e) {
+                // the pool is saturated; leave the old hash and retry on a later login
+            }
+        }
+
         // Generate JWT token
         String token = jwtTokenProvider.generateToken(user.getUsername(), user.getEmail());
         long expirationTime = jwtTokenProvider.getExpirationTime();
 
-        // Save token to database
-        Token tokenEntity = new Token();
-        tokenEntity.setTokenValue(token);
-        tokenEntity.setUser(user);
-        tokenEntity.setTokenType("Bearer");
-        tokenEntity.setRevoked(false);
-        
         // Convert expiration time to LocalDateTime
         LocalDateTime expiresAt = new Date(System.currentTimeMillis() + expirationTime)
                 .toInstant()
                 .atZone(ZoneId.systemDefault())
                 .toLocalDateTime();
-        tokenEntity.setExpiresAt(expiresAt);
-        tokenEntity.setIssuedAt(LocalDateTime.now());
-        
-        tokenRepository.save(tokenEntity);
+
+        saveLogin(user.getId(), token, expiresAt, rehashed);
 
         return new JwtResponse(token, expirationTime, user.getUsername(), user.getEmail());
     }
 
+    /**
+     * Store the issued token and, if there is one, the rehashed password in one short
+     * transaction; no hashing happens while it is open
+     */
+    private void saveLogin(Long userId, String token, LocalDateTime expiresAt, String rehashed) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (rehashed != null) {
+                userRepository.updatePassword(userId, rehashed);
+            }
+            Token tokenEntity = new Token();
+            tokenEntity.setTokenValue(token);
+            tokenEntity.setTokenHash(TokenHashing.sha256Hex(token));
+            tokenEntity.setUser(userRepository.getReferenceById(userId));
+            tokenEntity.setTokenType("Bearer");
+            tokenEntity.setRevoked(false);
+            tokenEntity.setExpiresAt(expiresAt);
+            tokenEntity.setIssuedAt(LocalDateTime.now());
+            tokenRepository.save(tokenEntity);
+        });
+    }
+
     /**
      * Get user by username
      */
@@ -134,17 +177,21 @@ public class AuthService {
      */
     @Transactional(readOnly = true)
     public boolean validateToken(String token) {
-        return jwtTokenProvider.validateToken(token);
+        JwtTokenProvider.VerifiedToken verified = jwtTokenProvider.verify(token);
+        return verified != null && !revocationCache.isRevoked(verified.tokenHash());
     }
 
     /**
      * Revoke a token
      */
+    @Transactional
     public void revokeToken(String token) {
-        Token tokenEntity = tokenRepository.findByTokenValue(token)
+        String tokenHash = TokenHashing.sha256Hex(token);
+        Token tokenEntity = tokenRepository.findByTokenHash(tokenHash)
                 .orElseThrow(() -> new ResourceNotFoundException("Token", "value", token));
         tokenEntity.setRevoked(true);
         tokenRepository.save(tokenEntity);
+        revocationCache.revoke(tokenHash, tokenEntity.getExpiresAt());
     }
 
     /**
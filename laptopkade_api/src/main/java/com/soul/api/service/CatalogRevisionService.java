@@ -0,0 +1,58 @@
+package com.soul.api.service;
+
+import com.soul.api.model.CatalogRevision;
+import com.soul.api.repository.CatalogRevisionRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Catalog-wide revision behind the ETag of GET /api/laptops, kept in the one row of
+ * catalog_revision so every API node reads the same value.
+ * <p>
+ * Every write to the laptops table calls {@link #bump()} as the last statement of
+ * its transaction, so the increment commits or rolls back with the write and the
+ * row lock it takes is held only until that commit. Reading the revision is a
+ * primary-key lookup, so a revalidation that ends in 304 touches no laptop rows.
+ * SQL run outside the API has to increment the row itself to be seen.
+ */
+@Service
+public class CatalogRevisionService {
+
+    @Autowired
+    private CatalogRevisionRepository catalogRevisionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void ensureRow() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!catalogRevisionRepository.existsById(CatalogRevision.ID)) {
+                    // seeded from the clock so a recreated row does not hand out tags seen before
+                    catalogRevisionRepository.save(new CatalogRevision(CatalogRevision.ID, System.currentTimeMillis()));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // another node created it first
+        }
+    }
+
+    /**
+     * Mark the catalog changed; part of the caller's writing transaction
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bump() {
+        catalogRevisionRepository.increment();
+    }
+
+    @Transactional(readOnly = true)
+    public long current() {
+        return catalogRevisionRepository.findCurrent().orElse(0L);
+    }
+}
@@ -0,0 +1,374 @@
+package com.soul.api.service;
+
+import com.soul.api.repository.LaptopPriceView;
+import com.soul.api.repository.LaptopRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Catalog price statistics kept in memory and updated incrementally, so the
+ * stats endpoints never run an aggregate or {@code ORDER BY price} query.
+ * <p>
+ * {@link LaptopService} reports every committed create, update and delete. Count
+ * and sum (in cents, so the average does not drift) are running totals. Min and max
+ * come from two indexed binary heaps, which support an update or removal by id in
+ * O(log n). The price histogram counts each laptop in its bucket. Every change
+ * publishes an immutable {@link Snapshot}, so reads are one volatile load.
+ * <p>
+ * Writes that bypass the service, such as the JDBC bulk import or manual SQL, are
+ * caught by a periodic rebuild from the database.
+ * <p>
+ * The snapshot revision is per node and tells in-memory consumers such as the facet
+ * index that the catalog changed; HTTP ETags come from {@link CatalogRevisionService}.
+ */
+@Component
+public class CatalogStatistics {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogStatistics.class);
+    private static final int RECONCILE_ATTEMPTS = 3;
+
+    @Autowired
+    private LaptopRepository laptopRepository;
+
+    private final long[] bucketEdgesCents;
+
+    // guarded by this
+    private final Map<Long, Long> pricesCents = new HashMap<>();
+    private final IndexedHeap cheapest = new IndexedHeap(false);
+    private final IndexedHeap dearest = new IndexedHeap(true);
+    private long[] histogram;
+    private long sumCents;
+    private long revision;
+
+    private volatile Snapshot snapshot;
+    private volatile boolean loaded;
+
+    /**
+     * @param bucketEdges ascending upper bounds of the price histogram buckets; a last open-ended bucket is added
+     */
+    public CatalogStatistics(@Value("${app.stats.price-buckets:500,1000,1500,2000,3000}") double[] bucketEdges) {
+        this.bucketEdgesCents = Arrays.stream(bucketEdges).mapToLong(CatalogStatistics::toCents).sorted().toArray();
+        this.histogram = new long[bucketEdgesCents.length + 1];
+        this.snapshot = buildSnapshot();
+    }
+
+    /**
+     * Current statistics; O(1) once loaded
+     */
+    public Snapshot snapshot() {
+        if (!loaded) {
+            reconcile();
+        }
+        return snapshot;
+    }
+
+    /**
+     * A laptop was created or updated; applied once the surrounding transaction commits
+     */
+    public void onSaved(Long id, Double price) {
+        if (id == null || price == null) {
+            return;
+        }
+        afterCommit(() -> put(id, toCents(price)));
+    }
+
+    /**
+     * A laptop was deleted; applied once the surrounding transaction commits
+     */
+    public void onDeleted(Long id) {
+        if (id == null) {
+            return;
+        }
+        afterCommit(() -> remove(id));
+    }
+
+    /**
+     * A laptop changed without a price change going through the service (stock
+     * reservations); only moves the revision, applied once the transaction commits
+     */
+    public void onTouched(Long id) {
+        if (id == null) {
+            return;
+        }
+        afterCommit(() -> {
+            synchronized (this) {
+                revision++;
+                snapshot = buildSnapshot();
+            }
+        });
+    }
+    
+    /**
+     * Many rows changed outside the entity path (bulk import, delete all); rebuild after commit
+     */
+    public void onBulkChange() {
+        afterCommit(() -> {
+            synchronized (this) {
+                revision++;
+            }
+            reconcile();
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reconcile();
+        logger.info("Loaded catalog statistics for {} laptops", snapshot.count());
+    }
+
+    /**
+     * Rebuild from the database and report any drift from the incremental state.
+     * A rebuild that races with an incremental change is retried, so a change
+     * committed while the rows were being read is not lost.
+     */
+    @Scheduled(fixedDelayString = "${app.stats.reconcile-ms:300000}", initialDelayString = "${app.stats.reconcile-ms:300000}")
+    public void reconcile() {
+        for (int attempt = 1; attempt <= RECONCILE_ATTEMPTS; attempt++) {
+            long startRevision;
+            synchronized (this) {
+                startRevision = revision;
+            }
+            List<LaptopPriceView> rows = laptopRepository.findAllPrices();
+            synchronized (this) {
+                if (revision != startRevision && attempt < RECONCILE_ATTEMPTS) {
+                    continue;
+                }
+                rebuild(rows);
+                return;
+            }
+        }
+    }
+
+    private synchronized void rebuild(List<LaptopPriceView> rows) {
+        Map<Long, Long> fresh = new HashMap<>(rows.size() * 2);
+        long freshSum = 0;
+        for (LaptopPriceView row : rows) {
+            if (row.getPrice() != null) {
+                long cents = toCents(row.getPrice());
+                fresh.put(row.getId(), cents);
+                freshSum += cents;
+            }
+        }
+        if (loaded && !fresh.equals(pricesCents)) {
+            logger.warn("Catalog statistics drifted from the database (count {} vs {}, sum {} vs {} cents); rebuilt",
+                    pricesCents.size(), fresh.size(), sumCents, freshSum);
+            revision++;
+        }
+
+        pricesCents.clear();
+        cheapest.clear();
+        dearest.clear();
+        histogram = new long[bucketEdgesCents.length + 1];
+        sumCents = 0;
+        fresh.forEach((id, cents) -> {
+            pricesCents.put(id, cents);
+            cheapest.put(id, cents);
+            dearest.put(id, cents);
+            histogram[bucket(cents)]++;
+            sumCents += cents;
+        });
+        loaded = true;
+        snapshot = buildSnapshot();
+    }
+
+    private synchronized void put(Long id, long cents) {
+        Long previous = pricesCents.put(id, cents);
+        if (previous != null) {
+            sumCents -= previous;
+            histogram[bucket(previous)]--;
+        }
+        sumCents += cents;
+        histogram[bucket(cents)]++;
+        cheapest.put(id, cents);
+        dearest.put(id, cents);
+        revision++;
+        snapshot = buildSnapshot();
+    }
+
+    private synchronized void remove(Long id) {
+        Long previous = pricesCents.remove(id);
+        if (previous != null) {
+            sumCents -= previous;
+            histogram[bucket(previous)]--;
+            cheapest.remove(id);
+            dearest.remove(id);
+        }
+        revision++;
+        snapshot = buildSnapshot();
+    }
+
+    private Snapshot buildSnapshot() {
+        return new Snapshot(revision, pricesCents.size(), sumCents,
+                cheapest.isEmpty() ? null : cheapest.topId(), cheapest.isEmpty() ? 0 : cheapest.topCents(),
+                dearest.isEmpty() ? null : dearest.topId(), dearest.isEmpty() ? 0 : dearest.topCents(),
+                bucketEdgesCents, histogram.clone());
+    }
+
+    private int bucket(long cents) {
+        int index = Arrays.binarySearch(bucketEdgesCents, cents);
+        // an exact edge belongs to the bucket above it
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    static long toCents(double price) {
+        return Math.round(price * 100);
+    }
+
+    /**
+     * Immutable view of the statistics at one revision
+     *
+     * @param revision bumped on every catalog change the engine sees
+     * @param edgesCents histogram bucket upper bounds; {@code histogram} has one more entry
+     */
+    public record Snapshot(long revision, long count, long sumCents,
+                           Long cheapestId, long minCents, Long dearestId, long maxCents,
+                           long[] edgesCents, long[] histogram) {
+
+        public double averagePrice() {
+            return count == 0 ? 0.0 : sumCents / (count * 100.0);
+        }
+
+        public Double minPrice() {
+            return cheapestId == null ? null : minCents / 100.0;
+        }
+
+        public Double maxPrice() {
+            return dearestId == null ? null : maxCents / 100.0;
+        }
+    }
+
+    /**
+     * Binary heap of (id, price) with an id -> slot index, so any entry can be
+     * repriced or removed in O(log n). Ties on price go to the lower id.
+     */
+    static final class IndexedHeap {
+        private final boolean maxFirst;
+        private final Map<Long, Integer> slots = new HashMap<>();
+        private long[] ids = new long[16];
+        private long[] cents = new long[16];
+        private int size;
+
+        IndexedHeap(boolean maxFirst) {
+            this.maxFirst = maxFirst;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        long topId() {
+            return ids[0];
+        }
+
+        long topCents() {
+            return cents[0];
+        }
+
+        void clear() {
+            slots.clear();
+            size = 0;
+        }
+
+        void put(long id, long price) {
+            Integer slot = slots.get(id);
+            if (slot == null) {
+                if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, size * 2);
+                    cents = Arrays.copyOf(cents, size * 2);
+                }
+                ids[size] = id;
+                cents[size] = price;
+                slots.put(id, size);
+                siftUp(size++);
+            } else {
+                cents[slot] = price;
+                siftDown(siftUp(slot));
+            }
+        }
+
+        void remove(long id) {
+            Integer slot = slots.remove(id);
+            if (slot == null) {
+                return;
+            }
+            int last = --size;
+            if (slot != last) {
+                ids[slot] = ids[last];
+                cents[slot] = cents[last];
+                slots.put(ids[slot], slot);
+                siftDown(siftUp(slot));
+            }
+        }
+
+        private int siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!before(i, parent)) {
+                    break;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+            return i;
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int left = 2 * i + 1;
+                if (left >= size) {
+                    return;
+                }
+                int child = left + 1 < size && before(left + 1, left) ? left + 1 : left;
+                if (!before(child, i)) {
+                    return;
+                }
+                swap(i, child);
+                i = child;
+            }
+        }
+
+        private boolean before(int a, int b) {
+            if (cents[a] != cents[b]) {
+                return maxFirst ? cents[a] > cents[b] : cents[a] < cents[b];
+            }
+            return ids[a] < ids[b];
+        }
+
+        private void swap(int a, int b) {
+            long id = ids[a];
+            long price = cents[a];
+            ids[a] = ids[b];
+            cents[a] = cents[b];
+            ids[b] = id;
+            cents[b] = price;
+            slots.put(ids[a], a);
+            slots.put(ids[b], b);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.soul.api.service;
+
+import java.util.Locale;
+
+/**
+ * Formats supported by the streaming catalog export
+ */
+public enum ExportFormat {
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv");
+
+    private final String contentType;
+
+    ExportFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public static ExportFormat from(String value) {
+        if (value != null) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                // fall through
+            }
+        }
+        throw new IllegalArgumentException("Export format must be 'ndjson' or 'csv'");
+    }
+}
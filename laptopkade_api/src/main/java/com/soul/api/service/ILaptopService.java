@@ -1,6 +1,13 @@
 package com.soul.api.service;
 
+import com.soul.api.dto.CatalogStats;
+import com.soul.api.dto.CursorPage;
+import com.soul.api.dto.FacetQuery;
+import com.soul.api.dto.FacetedSearchResult;
+import com.soul.api.dto.LaptopFilter;
 import com.soul.api.model.Laptop;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,11 +27,18 @@ public interface ILaptopService {
     List<Laptop> searchLaptops(String keyword);
     List<Laptop> getLaptopsInStock();
     List<Laptop> getLaptopsOutOfStock();
+    CursorPage<Laptop> getLaptopsPage(LaptopFilter filter, String sort, String cursor, Integer size);
+    List<Laptop> getLaptopsByRamRange(Integer minGb, Integer maxGb);
+    List<Laptop> getLaptopsByStorageRange(Integer minGb, Integer maxGb, String type);
+    FacetedSearchResult facetedSearch(FacetQuery query);
+    String getCatalogETag();
+    Optional<Long> getLaptopVersion(Long id);
+    long exportLaptops(ExportFormat format, OutputStream out) throws IOException;
     
     // Update
-    Laptop updateLaptop(Long id, Laptop laptopDetails);
-    Laptop updateLaptopStock(Long id, Integer newStock);
-    Laptop updateLaptopPrice(Long id, Double newPrice);
+    Laptop updateLaptop(Long id, Laptop laptopDetails, Long expectedVersion);
+    Long updateLaptopStock(Long id, Integer newStock, Long expectedVersion);
+    Long updateLaptopPrice(Long id, Double newPrice, Long expectedVersion);
     
     // Delete
     boolean deleteLaptop(Long id);
@@ -35,4 +49,5 @@ public interface ILaptopService {
     double getAveragePrice();
     Laptop getMostExpensiveLaptop();
     Laptop getLeastExpensiveLaptop();
+    CatalogStats getCatalogStats();
 }
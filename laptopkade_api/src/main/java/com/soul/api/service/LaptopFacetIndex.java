@@ -0,0 +1,410 @@
+package com.soul.api.service;
+
+import com.soul.api.dto.FacetCount;
+import com.soul.api.dto.FacetQuery;
+import com.soul.api.model.Laptop;
+import com.soul.api.repository.LaptopFacetView;
+import com.soul.api.repository.LaptopRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * In-memory columnar index for faceted laptop search.
+ * <p>
+ * Every laptop gets a dense ordinal (in id order). Each value of each facet
+ * dimension has a bitset posting list over those ordinals, and price and stock
+ * are kept as plain columns. A query ORs the postings of the selected values
+ * within a dimension and ANDs the dimensions together. Facet counts are popcounts
+ * of each value's posting against the filter without that dimension's own
+ * selection, so choosing "Dell" still shows how many HP laptops there are.
+ * With 100k laptops a posting is about 1,600 words, so a full query with counts
+ * is a few hundred thousand word operations.
+ * <p>
+ * The index is an immutable snapshot. It is rebuilt when the catalog revision
+ * moves (at most once per {@code app.search.facet-min-rebuild-ms}) and on a
+ * schedule, which also picks up a revision change that arrived inside the interval.
+ */
+@Component
+public class LaptopFacetIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(LaptopFacetIndex.class);
+
+    static final String BRAND = "brand";
+    static final String PROCESSOR = "processor";
+    static final String RAM = "ram";
+    static final String STORAGE = "storage";
+    static final String GRAPHICS_CARD = "graphicsCard";
+
+    private static final Map<String, Function<LaptopFacetView, String>> DIMENSIONS = new LinkedHashMap<>();
+
+    static {
+        DIMENSIONS.put(BRAND, LaptopFacetView::getBrand);
+        DIMENSIONS.put(PROCESSOR, LaptopFacetView::getProcessor);
+        DIMENSIONS.put(RAM, LaptopFacetView::getRam);
+        DIMENSIONS.put(STORAGE, LaptopFacetView::getStorage);
+        DIMENSIONS.put(GRAPHICS_CARD, LaptopFacetView::getGraphicsCard);
+    }
+
+    @Autowired
+    private LaptopRepository laptopRepository;
+
+    @Autowired
+    private CatalogStatistics catalogStatistics;
+
+    @Value("${app.search.facet-min-rebuild-ms:2000}")
+    private long minRebuildIntervalMs;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+
+    /**
+     * Matching laptop ids for one page, total hits and facet counts
+     */
+    public Result search(FacetQuery query, int page, int size) {
+        return search(current(), query, page, size);
+    }
+
+    /**
+     * Whether a laptop as loaded now still passes the query's filters. The index is a
+     * snapshot up to a rebuild interval old, so a page's rows are checked again before
+     * they are returned; only the totals and facet counts reflect the snapshot.
+     */
+    static boolean matches(FacetQuery query, Laptop laptop) {
+        if (query.getInStock() != null
+                && query.getInStock() != (laptop.getStock() != null && laptop.getStock() > 0)) {
+            return false;
+        }
+        Double price = laptop.getPrice();
+        if (query.getMinPrice() != null && (price == null || price < query.getMinPrice())) {
+            return false;
+        }
+        if (query.getMaxPrice() != null && (price == null || price > query.getMaxPrice())) {
+            return false;
+        }
+        for (String dimension : DIMENSIONS.keySet()) {
+            List<String> values = selection(query, dimension);
+            if (values == null || values.isEmpty()) {
+                continue;
+            }
+            String value = value(laptop, dimension);
+            if (value == null || values.stream().noneMatch(v -> v != null && normalize(v).equals(normalize(value)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static Result search(Snapshot index, FacetQuery query, int page, int size) {
+        int words = Bits.words(index.ids.length);
+
+        long[] base = Bits.all(index.ids.length);
+        if (query.getInStock() != null) {
+            long[] stocked = query.getInStock() ? index.inStock : Bits.not(index.inStock, index.ids.length);
+            Bits.andInto(base, stocked);
+        }
+        if (query.getMinPrice() != null || query.getMaxPrice() != null) {
+            double min = query.getMinPrice() != null ? query.getMinPrice() : Double.NEGATIVE_INFINITY;
+            double max = query.getMaxPrice() != null ? query.getMaxPrice() : Double.POSITIVE_INFINITY;
+            long[] inRange = new long[words];
+            for (int ord = 0; ord < index.prices.length; ord++) {
+                double price = index.prices[ord];
+                if (price >= min && price <= max) {
+                    inRange[ord >>> 6] |= 1L << ord;
+                }
+            }
+            Bits.andInto(base, inRange);
+        }
+
+        // one OR'ed mask per dimension that has a selection
+        Map<String, long[]> selected = new LinkedHashMap<>();
+        for (Facet facet : index.facets.values()) {
+            List<String> values = selection(query, facet.name);
+            if (values == null || values.isEmpty()) {
+                continue;
+            }
+            long[] mask = new long[words];
+            for (String value : values) {
+                Integer valueOrd = value == null ? null : facet.ordinals.get(normalize(value));
+                if (valueOrd != null) {
+                    Bits.orInto(mask, facet.postings[valueOrd]);
+                }
+            }
+            selected.put(facet.name, mask);
+        }
+
+        long[] hits = base.clone();
+        selected.values().forEach(mask -> Bits.andInto(hits, mask));
+
+        Map<String, List<FacetCount>> counts = new LinkedHashMap<>();
+        for (Facet facet : index.facets.values()) {
+            long[] scope = base.clone();
+            selected.forEach((name, mask) -> {
+                if (!name.equals(facet.name)) {
+                    Bits.andInto(scope, mask);
+                }
+            });
+            List<FacetCount> facetCounts = new ArrayList<>();
+            for (int v = 0; v < facet.labels.length; v++) {
+                long count = Bits.andCardinality(facet.postings[v], scope);
+                if (count > 0) {
+                    facetCounts.add(new FacetCount(facet.labels[v], count));
+                }
+            }
+            facetCounts.sort(Comparator.comparingLong(FacetCount::getCount).reversed()
+                    .thenComparing(FacetCount::getValue, String.CASE_INSENSITIVE_ORDER));
+            counts.put(facet.name, facetCounts);
+        }
+
+        long total = Bits.cardinality(hits);
+        List<Long> pageIds = new ArrayList<>(size);
+        long skip = (long) page * size;
+        for (int ord = Bits.nextSetBit(hits, 0); ord >= 0 && pageIds.size() < size; ord = Bits.nextSetBit(hits, ord + 1)) {
+            if (skip > 0) {
+                skip--;
+            } else {
+                pageIds.add(index.ids[ord]);
+            }
+        }
+        return new Result(pageIds, total, counts);
+    }
+
+    /**
+     * Periodic rebuild, so the last change of a burst is not left waiting for the next search
+     */
+    @Scheduled(fixedDelayString = "${app.search.facet-rebuild-ms:60000}", initialDelayString = "${app.search.facet-rebuild-ms:60000}")
+    public void refresh() {
+        rebuildLock.lock();
+        try {
+            rebuild();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot index = snapshot;
+        if (index == null) {
+            refreshIfStale(null);
+            return snapshot;
+        }
+        if (index.revision != catalogStatistics.snapshot().revision()
+                && System.currentTimeMillis() - index.builtAt >= minRebuildIntervalMs
+                && rebuildLock.tryLock()) {
+            // other callers keep searching the previous snapshot meanwhile
+            try {
+                refreshIfStale(index);
+            } finally {
+                rebuildLock.unlock();
+            }
+        }
+        return snapshot;
+    }
+
+    private void refreshIfStale(Snapshot seen) {
+        rebuildLock.lock();
+        try {
+            if (snapshot == seen) {
+                rebuild();
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void rebuild() {
+        long start = System.currentTimeMillis();
+        // read the revision first: a change committed during the load moves it again
+        long revision = catalogStatistics.snapshot().revision();
+        List<LaptopFacetView> rows = laptopRepository.findAllFacetRows();
+        snapshot = build(revision, rows);
+        logger.debug("Rebuilt facet index over {} laptops in {} ms", rows.size(), System.currentTimeMillis() - start);
+    }
+
+    static Snapshot build(long revision, List<LaptopFacetView> rows) {
+        int n = rows.size();
+        int words = Bits.words(n);
+
+        long[] ids = new long[n];
+        double[] prices = new double[n];
+        long[] inStock = new long[words];
+        Map<String, FacetBuilder> builders = new LinkedHashMap<>();
+        DIMENSIONS.keySet().forEach(name -> builders.put(name, new FacetBuilder(name, words)));
+
+        for (int ord = 0; ord < n; ord++) {
+            LaptopFacetView row = rows.get(ord);
+            ids[ord] = row.getId();
+            prices[ord] = row.getPrice() != null ? row.getPrice() : Double.NaN;
+            if (row.getStock() != null && row.getStock() > 0) {
+                inStock[ord >>> 6] |= 1L << ord;
+            }
+            for (Map.Entry<String, Function<LaptopFacetView, String>> dimension : DIMENSIONS.entrySet()) {
+                builders.get(dimension.getKey()).add(dimension.getValue().apply(row), ord);
+            }
+        }
+
+        Map<String, Facet> facets = new LinkedHashMap<>();
+        builders.forEach((name, builder) -> facets.put(name, builder.build()));
+        return new Snapshot(revision, System.currentTimeMillis(), ids, prices, inStock, facets);
+    }
+
+    private static List<String> selection(FacetQuery query, String dimension) {
+        return switch (dimension) {
+            case BRAND -> query.getBrand();
+            case PROCESSOR -> query.getProcessor();
+            case RAM -> query.getRam();
+            case STORAGE -> query.getStorage();
+            case GRAPHICS_CARD -> query.getGraphicsCard();
+            default -> null;
+        };
+    }
+
+    private static String value(Laptop laptop, String dimension) {
+        return switch (dimension) {
+            case BRAND -> laptop.getBrand();
+            case PROCESSOR -> laptop.getProcessor();
+            case RAM -> laptop.getRam();
+            case STORAGE -> laptop.getStorage();
+            case GRAPHICS_CARD -> laptop.getGraphicsCard();
+            default -> null;
+        };
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @param ids laptop ids of the requested page, in id order
+     */
+    public record Result(List<Long> ids, long total, Map<String, List<FacetCount>> facets) {
+    }
+
+    record Snapshot(long revision, long builtAt, long[] ids, double[] prices, long[] inStock,
+                            Map<String, Facet> facets) {
+    }
+
+    /**
+     * One dimension: value label by ordinal, and a posting bitset per value
+     */
+    private record Facet(String name, Map<String, Integer> ordinals, String[] labels, long[][] postings) {
+    }
+
+    private static final class FacetBuilder {
+        private final String name;
+        private final int words;
+        private final Map<String, Integer> ordinals = new HashMap<>();
+        private final List<String> labels = new ArrayList<>();
+        private final List<long[]> postings = new ArrayList<>();
+
+        FacetBuilder(String name, int words) {
+            this.name = name;
+            this.words = words;
+        }
+
+        void add(String value, int ord) {
+            if (value == null || value.isBlank()) {
+                return;
+            }
+            Integer valueOrd = ordinals.computeIfAbsent(normalize(value), key -> {
+                labels.add(value.trim());
+                postings.add(new long[words]);
+                return labels.size() - 1;
+            });
+            postings.get(valueOrd)[ord >>> 6] |= 1L << ord;
+        }
+
+        Facet build() {
+            return new Facet(name, ordinals, labels.toArray(new String[0]), postings.toArray(new long[0][]));
+        }
+    }
+
+    /**
+     * Dense bitsets as long[] words; bit {@code i} lives in word {@code i >>> 6}
+     */
+    static final class Bits {
+
+        private Bits() {
+        }
+
+        static int words(int bits) {
+            return (bits + 63) >>> 6;
+        }
+
+        static long[] all(int bits) {
+            long[] set = new long[words(bits)];
+            Arrays.fill(set, -1L);
+            if ((bits & 63) != 0) {
+                set[set.length - 1] = (1L << bits) - 1;
+            }
+            return set;
+        }
+
+        static long[] not(long[] set, int bits) {
+            long[] all = all(bits);
+            for (int i = 0; i < all.length; i++) {
+                all[i] &= ~set[i];
+            }
+            return all;
+        }
+
+        static void andInto(long[] target, long[] other) {
+            for (int i = 0; i < target.length; i++) {
+                target[i] &= other[i];
+            }
+        }
+
+        static void orInto(long[] target, long[] other) {
+            for (int i = 0; i < target.length; i++) {
+                target[i] |= other[i];
+            }
+        }
+
+        static long cardinality(long[] set) {
+            long count = 0;
+            for (long word : set) {
+                count += Long.bitCount(word);
+            }
+            return count;
+        }
+
+        static long andCardinality(long[] a, long[] b) {
+            long count = 0;
+            for (int i = 0; i < a.length; i++) {
+                count += Long.bitCount(a[i] & b[i]);
+            }
+            return count;
+        }
+
+        static int nextSetBit(long[] set, int from) {
+            int word = from >>> 6;
+            if (word >= set.length) {
+                return -1;
+            }
+            long bits = set[word] & (-1L << from);
+            while (true) {
+                if (bits != 0) {
+                    return (word << 6) + Long.numberOfTrailingZeros(bits);
+                }
+                if (++word == set.length) {
+                    return -1;
+                }
+                bits = set[word];
+            }
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.soul.api.service;
+
+import com.soul.api.dto.ImportResult;
+import com.soul.api.dto.ImportRowError;
+import com.soul.api.model.Laptop;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Bulk catalog import. Rows are converted and validated in parallel, then the
+ * valid ones are upserted on the (brand, model) unique key with batched JDBC
+ * statements, bypassing the one-INSERT-per-row IDENTITY path of JPA.
+ * <p>
+ * Each batch commits on its own. If the database rejects a batch, the batch is
+ * rolled back and replayed one row at a time, so the offending rows are reported
+ * alongside the validation errors and the rest of the import still goes in.
+ * Rows are numbered by position in the JSON array, or by the CSV line the record
+ * starts on.
+ */
+@Service
+public class LaptopImportService {
+
+    private static final int BATCH_SIZE = 1000;
+    // VARCHAR(255) columns of the laptops table
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO laptops (brand, model, processor, ram, storage, graphics_card, price, stock, description, "
+            + "ram_mb, storage_gb, storage_type, updated_at, version) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP(6), 0) "
+            + "ON DUPLICATE KEY UPDATE processor = VALUES(processor), ram = VALUES(ram), storage = VALUES(storage), "
+            + "graphics_card = VALUES(graphics_card), price = VALUES(price), stock = VALUES(stock), "
+            + "description = VALUES(description), ram_mb = VALUES(ram_mb), storage_gb = VALUES(storage_gb), "
+            + "storage_type = VALUES(storage_type), updated_at = VALUES(updated_at), version = version + 1";
+
+    private static final List<String> COLUMNS = List.of(
+            "brand", "model", "processor", "ram", "storage", "graphicscard", "price", "stock", "description");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CatalogStatistics catalogStatistics;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CatalogRevisionService catalogRevisionService;
+
+    /**
+     * Import laptops from a JSON array
+     */
+    public ImportResult importLaptops(List<Laptop> laptops) {
+        if (laptops == null) {
+            throw new IllegalArgumentException("Import payload cannot be empty");
+        }
+        long start = System.currentTimeMillis();
+        List<RowResult> results = IntStream.range(0, laptops.size())
+                .parallel()
+                .mapToObj(i -> validate(i + 1, laptops.get(i)))
+                .toList();
+        return upsert(results, start);
+    }
+
+    /**
+     * Import laptops from CSV text with a header row
+     * (brand, model, processor, ram, storage, graphicsCard, price, stock, description; id is ignored)
+     */
+    public ImportResult importCsv(String csv) {
+        if (csv == null || csv.isBlank()) {
+            throw new IllegalArgumentException("Import payload cannot be empty");
+        }
+        long start = System.currentTimeMillis();
+        List<CsvRecord> records = parseCsv(csv);
+        Map<String, Integer> header = new HashMap<>();
+        List<String> headerRow = records.get(0).fields();
+        for (int i = 0; i < headerRow.size(); i++) {
+            header.put(headerRow.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT), i);
+        }
+        for (String column : COLUMNS) {
+            if (!column.equals("description") && !header.containsKey(column)) {
+                throw new IllegalArgumentException("CSV header is missing column '" + column + "'");
+            }
+        }
+
+        // rows are reported by the line they start on, so they can be found in the file
+        List<RowResult> results = records.subList(1, records.size()).parallelStream()
+                .map(record -> {
+                    try {
+                        return validate(record.line(), toLaptop(record.fields(), header));
+                    } catch (IllegalArgumentException e) {
+                        return RowResult.error(record.line(), e.getMessage());
+                    }
+                })
+                .toList();
+        return upsert(results, start);
+    }
+
+    private ImportResult upsert(List<RowResult> results, long start) {
+        List<RowResult> valid = new ArrayList<>(results.size());
+        List<ImportRowError> errors = new ArrayList<>();
+        for (RowResult result : results) {
+            if (result.error() != null) {
+                errors.add(new ImportRowError(result.row(), result.error()));
+            } else {
+                valid.add(result);
+            }
+        }
+
+        int imported = 0;
+        for (int from = 0; from < valid.size(); from += BATCH_SIZE) {
+            imported += upsertBatch(valid.subList(from, Math.min(from + BATCH_SIZE, valid.size())), errors);
+        }
+        if (imported > 0) {
+            catalogStatistics.onBulkChange();
+        }
+        errors.sort(Comparator.comparingInt(ImportRowError::getRow));
+
+        return new ImportResult(results.size(), imported, errors.size(),
+                System.currentTimeMillis() - start, errors);
+    }
+
+    /**
+     * Upsert one batch in its own transaction; if the database rejects it, roll it back
+     * and replay it row by row, reporting the rows that fail. Returns the rows stored.
+     */
+    private int upsertBatch(List<RowResult> batch, List<ImportRowError> errors) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(UPSERT_SQL, batch, batch.size(), (ps, row) -> bind(ps, row.laptop()));
+                catalogRevisionService.bump();
+            });
+            return batch.size();
+        } catch (DataAccessException e) {
+            // fall through to find the rows the database refused
+        }
+        List<ImportRowError> rejected = new ArrayList<>();
+        // a failed statement only rolls itself back, so the rest of the batch still commits together
+        transactionTemplate.executeWithoutResult(status -> {
+            for (RowResult row : batch) {
+                try {
+                    jdbcTemplate.update(UPSERT_SQL, ps -> bind(ps, row.laptop()));
+                } catch (DataAccessException e) {
+                    rejected.add(new ImportRowError(row.row(), e.getMostSpecificCause().getMessage()));
+                }
+            }
+            if (rejected.size() < batch.size()) {
+                catalogRevisionService.bump();
+            }
+        });
+        errors.addAll(rejected);
+        return batch.size() - rejected.size();
+    }
+
+    private static void bind(PreparedStatement ps, Laptop laptop) throws SQLException {
+        ps.setString(1, laptop.getBrand());
+        ps.setString(2, laptop.getModel());
+        ps.setString(3, laptop.getProcessor());
+        ps.setString(4, laptop.getRam());
+        ps.setString(5, laptop.getStorage());
+        ps.setString(6, laptop.getGraphicsCard());
+        ps.setDouble(7, laptop.getPrice());
+        ps.setInt(8, laptop.getStock());
+        ps.setString(9, laptop.getDescription());
+        ps.setObject(10, laptop.getRamMb(), Types.INTEGER);
+        ps.setObject(11, laptop.getStorageGb(), Types.INTEGER);
+        ps.setString(12, laptop.getStorageType());
+    }
+
+    private RowResult validate(int row, Laptop laptop) {
+        if (laptop == null) {
+            return RowResult.error(row, "Row is empty");
+        }
+        if (isBlank(laptop.getBrand()) || isBlank(laptop.getModel())) {
+            return RowResult.error(row, "Brand and model are required");
+        }
+        if (isBlank(laptop.getProcessor()) || isBlank(laptop.getRam())
+                || isBlank(laptop.getStorage()) || isBlank(laptop.getGraphicsCard())) {
+            return RowResult.error(row, "Processor, ram, storage and graphicsCard are required");
+        }
+        if (tooLong(laptop.getBrand()) || tooLong(laptop.getModel()) || tooLong(laptop.getProcessor())
+                || tooLong(laptop.getRam()) || tooLong(laptop.getStorage()) || tooLong(laptop.getGraphicsCard())) {
+            return RowResult.error(row, "Brand, model, processor, ram, storage and graphicsCard cannot exceed "
+                    + MAX_TEXT_LENGTH + " characters");
+        }
+        if (laptop.getPrice() == null || !Double.isFinite(laptop.getPrice()) || laptop.getPrice() < 0) {
+            return RowResult.error(row, "Price must be valid");
+        }
+        if (laptop.getStock() == null || laptop.getStock() < 0) {
+            return RowResult.error(row, "Stock must be valid");
+        }
+        if (laptop.getDescription() != null && laptop.getDescription().length() > 1000) {
+            return RowResult.error(row, "Description cannot exceed 1000 characters");
+        }
+        LaptopSpecs.apply(laptop);
+        return new RowResult(row, laptop, null);
+    }
+
+    private static Laptop toLaptop(List<String> record, Map<String, Integer> header) {
+        Laptop laptop = new Laptop();
+        laptop.setBrand(field(record, header, "brand"));
+        laptop.setModel(field(record, header, "model"));
+        laptop.setProcessor(field(record, header, "processor"));
+        laptop.setRam(field(record, header, "ram"));
+        laptop.setStorage(field(record, header, "storage"));
+        laptop.setGraphicsCard(field(record, header, "graphicscard"));
+        laptop.setDescription(field(record, header, "description"));
+        String price = field(record, header, "price");
+        String stock = field(record, header, "stock");
+        try {
+            laptop.setPrice(price == null ? null : Double.valueOf(price));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Price '" + price + "' is not a number");
+        }
+        try {
+            laptop.setStock(stock == null ? null : Integer.valueOf(stock));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Stock '" + stock + "' is not a whole number");
+        }
+        return laptop;
+    }
+
+    private static String field(List<String> record, Map<String, Integer> header, String column) {
+        Integer index = header.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * RFC 4180 style parser: comma separated, double-quoted fields may contain commas,
+     * newlines and doubled quotes. Blank lines are skipped; each record keeps the
+     * 1-based line it starts on.
+     */
+    static List<CsvRecord> parseCsv(String csv) {
+        List<CsvRecord> records = new ArrayList<>();
+        List<String> record = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int line = 1;
+        int recordLine = 1;
+        for (int i = 0; i < csv.length(); i++) {
+            char c = csv.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < csv.length() && csv.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    if (c == '\n' || (c == '\r' && (i + 1 == csv.length() || csv.charAt(i + 1) != '\n'))) {
+                        line++;
+                    }
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && i + 1 < csv.length() && csv.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                endRecord(records, recordLine, record, field);
+                record = new ArrayList<>();
+                line++;
+                recordLine = line;
+            } else {
+                field.append(c);
+            }
+        }
+        endRecord(records, recordLine, record, field);
+        if (records.isEmpty()) {
+            return Collections.singletonList(new CsvRecord(1, List.of()));
+        }
+        return records;
+    }
+
+    private static void endRecord(List<CsvRecord> records, int line, List<String> record, StringBuilder field) {
+        if (record.isEmpty() && field.length() == 0) {
+            return; // blank line
+        }
+        record.add(field.toString());
+        field.setLength(0);
+        records.add(new CsvRecord(line, record));
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    private static boolean tooLong(String value) {
+        return value != null && value.length() > MAX_TEXT_LENGTH;
+    }
+
+    record CsvRecord(int line, List<String> fields) {
+    }
+
+    private record RowResult(int row, Laptop laptop, String error) {
+        static RowResult error(int row, String message) {
+            return new RowResult(row, null, message);
+        }
+    }
+}
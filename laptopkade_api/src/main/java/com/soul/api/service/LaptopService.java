@@ -1,22 +1,73 @@
 package com.soul.api.service;
 
+import com.soul.api.dto.CatalogStats;
+import com.soul.api.dto.CursorPage;
+import com.soul.api.dto.FacetQuery;
+import com.soul.api.dto.FacetedSearchResult;
+import com.soul.api.dto.LaptopFilter;
+import com.soul.api.dto.PriceBucket;
 import com.soul.api.model.Laptop;
 import com.soul.api.repository.LaptopRepository;
+import com.soul.api.exception.PreconditionFailedException;
 import com.soul.api.exception.ResourceNotFoundException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class LaptopService implements ILaptopService {
     
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int EXPORT_FLUSH_EVERY = 500;
+    
     @Autowired
     private LaptopRepository laptopRepository;
     
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private CatalogStatistics catalogStatistics;
+    
+    @Autowired
+    private LaptopFacetIndex laptopFacetIndex;
+    
+    @Autowired
+    private CatalogRevisionService catalogRevisionService;
+    
+    // most/least expensive laptop as of a statistics revision; reloaded by id when the revision moves
+    private final AtomicReference<RankedLaptop> mostExpensive = new AtomicReference<>();
+    private final AtomicReference<RankedLaptop> leastExpensive = new AtomicReference<>();
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
     /**
      * Create a new laptop
      */
@@ -31,7 +82,13 @@ public class LaptopService implements ILaptopService {
         if (laptop.getStock() == null || laptop.getStock() < 0) {
             throw new IllegalArgumentException("Stock must be valid");
         }
-        return laptopRepository.save(laptop);
+        // a version sent by the client would make the save look like an update of a detached row
+        laptop.setVersion(null);
+        LaptopSpecs.apply(laptop);
+        Laptop saved = laptopRepository.save(laptop);
+        catalogStatistics.onSaved(saved.getId(), saved.getPrice());
+        catalogRevisionService.bump();
+        return saved;
     }
     
     /**
@@ -118,6 +175,50 @@ public class LaptopService implements ILaptopService {
         return laptopRepository.findLaptopsInPriceRange(minPrice, maxPrice);
     }
     
+    /**
+     * Get laptops with RAM in a range, in GB; either bound may be omitted
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Laptop> getLaptopsByRamRange(Integer minGb, Integer maxGb) {
+        int[] range = gbRange(minGb, maxGb);
+        return laptopRepository.findByRamMbBetweenOrderByRamMbAscIdAsc(
+                (int) Math.min(range[0] * 1024L, Integer.MAX_VALUE), (int) Math.min(range[1] * 1024L, Integer.MAX_VALUE));
+    }
+    
+    /**
+     * Get laptops with total storage in a range, in GB, optionally of one type (SSD, HDD, EMMC, HYBRID)
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Laptop> getLaptopsByStorageRange(Integer minGb, Integer maxGb, String type) {
+        int[] range = gbRange(minGb, maxGb);
+        if (type == null || type.isBlank()) {
+            return laptopRepository.findByStorageGbBetweenOrderByStorageGbAscIdAsc(range[0], range[1]);
+        }
+        String storageType = type.trim().toUpperCase(Locale.ROOT);
+        if (!LaptopSpecs.STORAGE_TYPES.contains(storageType)) {
+            throw new IllegalArgumentException("Storage type must be one of " + LaptopSpecs.STORAGE_TYPES);
+        }
+        return laptopRepository.findByStorageTypeAndStorageGbBetweenOrderByStorageGbAscIdAsc(
+                storageType, range[0], range[1]);
+    }
+    
+    private static int[] gbRange(Integer minGb, Integer maxGb) {
+        if (minGb == null && maxGb == null) {
+            throw new IllegalArgumentException("At least one of minGb and maxGb is required");
+        }
+        int min = minGb == null ? 0 : minGb;
+        int max = maxGb == null ? Integer.MAX_VALUE : maxGb;
+        if (min < 0 || max < 0) {
+            throw new IllegalArgumentException("Capacities must be valid");
+        }
+        if (min > max) {
+            throw new IllegalArgumentException("Min capacity cannot be greater than max capacity");
+        }
+        return new int[]{min, max};
+    }
+    
     /**
      * Search laptops by keyword
      */
@@ -149,17 +250,161 @@ public class LaptopService implements ILaptopService {
     }
     
     /**
-     * Update an existing laptop
+     * Get one keyset page of laptops, ordered by id or by price
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<Laptop> getLaptopsPage(LaptopFilter filter, String sort, String cursor, Integer size) {
+        String sortKey = sort == null ? PageCursor.SORT_ID : sort.toLowerCase();
+        if (!PageCursor.SORT_ID.equals(sortKey) && !PageCursor.SORT_PRICE.equals(sortKey)) {
+            throw new IllegalArgumentException("Sort must be 'id' or 'price'");
+        }
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : size;
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        pageSize = Math.min(pageSize, MAX_PAGE_SIZE);
+        LaptopFilter f = filter != null ? filter : new LaptopFilter();
+        
+        PageCursor after = cursor == null || cursor.isEmpty()
+                ? PageCursor.first(sortKey)
+                : PageCursor.decode(cursor, sortKey);
+        
+        // fetch one extra row to learn whether another page exists
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<Laptop> rows = PageCursor.SORT_PRICE.equals(sortKey)
+                ? laptopRepository.findPageOrderByPrice(after.price(), after.id(),
+                        f.getBrand(), f.getMinPrice(), f.getMaxPrice(), f.getInStock(), limit)
+                : laptopRepository.findPageOrderById(after.id(),
+                        f.getBrand(), f.getMinPrice(), f.getMaxPrice(), f.getInStock(), limit);
+        
+        boolean hasMore = rows.size() > pageSize;
+        List<Laptop> content = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            Laptop last = content.get(content.size() - 1);
+            nextCursor = new PageCursor(sortKey, last.getPrice(), last.getId()).encode();
+        }
+        return new CursorPage<>(content, content.size(), nextCursor, hasMore);
+    }
+    
+    /**
+     * Filter on any combination of facets and price/stock in one call, with facet counts.
+     * Matching is done on the in-memory facet index; only the returned page is read from the database.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public FacetedSearchResult facetedSearch(FacetQuery query) {
+        FacetQuery q = query != null ? query : new FacetQuery();
+        if ((q.getMinPrice() != null && q.getMinPrice() < 0) || (q.getMaxPrice() != null && q.getMaxPrice() < 0)) {
+            throw new IllegalArgumentException("Prices must be valid");
+        }
+        if (q.getMinPrice() != null && q.getMaxPrice() != null && q.getMinPrice() > q.getMaxPrice()) {
+            throw new IllegalArgumentException("Min price cannot be greater than max price");
+        }
+        int page = q.getPage() == null ? 0 : q.getPage();
+        if (page < 0) {
+            throw new IllegalArgumentException("Page must not be negative");
+        }
+        int pageSize = q.getSize() == null ? DEFAULT_PAGE_SIZE : q.getSize();
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        pageSize = Math.min(pageSize, MAX_PAGE_SIZE);
+        
+        LaptopFacetIndex.Result result = laptopFacetIndex.search(q, page, pageSize);
+        Map<Long, Laptop> byId = laptopRepository.findAllById(result.ids()).stream()
+                .collect(Collectors.toMap(Laptop::getId, Function.identity()));
+        // keep index order; a laptop deleted or changed out of the filter since the last rebuild is skipped
+        List<Laptop> content = result.ids().stream().map(byId::get).filter(Objects::nonNull)
+                .filter(laptop -> LaptopFacetIndex.matches(q, laptop)).toList();
+        return new FacetedSearchResult(content, result.total(), page, pageSize, result.facets());
+    }
+    
+    /**
+     * Stream the whole catalog to {@code out} without materializing it.
+     * Rows are detached as soon as they are written so the persistence context
+     * stays empty, and the first rows are flushed immediately.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportLaptops(ExportFormat format, OutputStream out) throws IOException {
+        long count = 0;
+        try (Stream<Laptop> laptops = laptopRepository.streamAllOrderById()) {
+            Iterator<Laptop> it = laptops.iterator();
+            if (format == ExportFormat.NDJSON) {
+                JsonGenerator gen = objectMapper.getFactory().createGenerator(out);
+                gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                while (it.hasNext()) {
+                    Laptop laptop = it.next();
+                    objectMapper.writeValue(gen, laptop);
+                    gen.writeRaw('\n');
+                    entityManager.detach(laptop);
+                    if (++count == 1 || count % EXPORT_FLUSH_EVERY == 0) {
+                        gen.flush();
+                    }
+                }
+                gen.flush();
+            } else {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                writer.write("id,brand,model,processor,ram,storage,graphicsCard,price,stock,description\n");
+                writer.flush();
+                while (it.hasNext()) {
+                    Laptop laptop = it.next();
+                    writer.write(String.valueOf(laptop.getId()));
+                    writeCsvField(writer, laptop.getBrand());
+                    writeCsvField(writer, laptop.getModel());
+                    writeCsvField(writer, laptop.getProcessor());
+                    writeCsvField(writer, laptop.getRam());
+                    writeCsvField(writer, laptop.getStorage());
+                    writeCsvField(writer, laptop.getGraphicsCard());
+                    writeCsvField(writer, String.valueOf(laptop.getPrice()));
+                    writeCsvField(writer, String.valueOf(laptop.getStock()));
+                    writeCsvField(writer, laptop.getDescription());
+                    writer.write('\n');
+                    entityManager.detach(laptop);
+                    if (++count == 1 || count % EXPORT_FLUSH_EVERY == 0) {
+                        writer.flush();
+                    }
+                }
+                writer.flush();
+            }
+        }
+        return count;
+    }
+    
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        writer.write(',');
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        } else {
+            writer.write(value);
+        }
+    }
+    
+    /**
+     * Update an existing laptop. The version check and Hibernate's versioned UPDATE
+     * together reject an edit based on a stale copy instead of overwriting a newer one.
+     *
+     * @param expectedVersion version from If-Match, or null to update whatever is current
      */
     @Override
     @SuppressWarnings("null")
-    public Laptop updateLaptop(Long id, Laptop laptopDetails) {
+    public Laptop updateLaptop(Long id, Laptop laptopDetails, Long expectedVersion) {
         if (id == null || id <= 0) {
             throw new IllegalArgumentException("Invalid laptop ID");
         }
         
         Laptop existingLaptop = laptopRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Laptop", "id", id));
+        if (expectedVersion != null && !expectedVersion.equals(existingLaptop.getVersion())) {
+            throw new PreconditionFailedException(id, expectedVersion);
+        }
         
         if (laptopDetails != null) {
             if (laptopDetails.getBrand() != null && !laptopDetails.getBrand().isEmpty()) {
@@ -190,14 +435,22 @@ public class LaptopService implements ILaptopService {
                 existingLaptop.setDescription(laptopDetails.getDescription());
             }
         }
-        return laptopRepository.save(existingLaptop);
+        LaptopSpecs.apply(existingLaptop);
+        // flush now so the returned version is the one just written
+        Laptop saved = laptopRepository.saveAndFlush(existingLaptop);
+        catalogStatistics.onSaved(saved.getId(), saved.getPrice());
+        catalogRevisionService.bump();
+        return saved;
     }
     
     /**
-     * Update laptop stock
+     * Set laptop stock with one targeted UPDATE, without reading the row first
+     *
+     * @param expectedVersion version from If-Match, or null to update unconditionally
+     * @return the new version if {@code expectedVersion} was given, otherwise null (not known without a read)
      */
     @Override
-    public Laptop updateLaptopStock(Long id, Integer newStock) {
+    public Long updateLaptopStock(Long id, Integer newStock, Long expectedVersion) {
         if (id == null || id <= 0) {
             throw new IllegalArgumentException("Invalid laptop ID");
         }
@@ -205,17 +458,22 @@ public class LaptopService implements ILaptopService {
             throw new IllegalArgumentException("Stock must be valid");
         }
         
-        Laptop laptop = laptopRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Laptop", "id", id));
-        laptop.setStock(newStock);
-        return laptopRepository.save(laptop);
+        if (laptopRepository.updateStock(id, newStock, expectedVersion) == 0) {
+            throw notUpdated(id, expectedVersion);
+        }
+        catalogStatistics.onTouched(id);
+        catalogRevisionService.bump();
+        return expectedVersion == null ? null : expectedVersion + 1;
     }
     
     /**
-     * Update laptop price
+     * Set laptop price with one targeted UPDATE, without reading the row first
+     *
+     * @param expectedVersion version from If-Match, or null to update unconditionally
+     * @return the new version if {@code expectedVersion} was given, otherwise null (not known without a read)
      */
     @Override
-    public Laptop updateLaptopPrice(Long id, Double newPrice) {
+    public Long updateLaptopPrice(Long id, Double newPrice, Long expectedVersion) {
         if (id == null || id <= 0) {
             throw new IllegalArgumentException("Invalid laptop ID");
         }
@@ -223,10 +481,34 @@ public class LaptopService implements ILaptopService {
             throw new IllegalArgumentException("Price must be valid");
         }
         
-        Laptop laptop = laptopRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Laptop", "id", id));
-        laptop.setPrice(newPrice);
-        return laptopRepository.save(laptop);
+        if (laptopRepository.updatePrice(id, newPrice, expectedVersion) == 0) {
+            throw notUpdated(id, expectedVersion);
+        }
+        catalogStatistics.onSaved(id, newPrice);
+        catalogRevisionService.bump();
+        return expectedVersion == null ? null : expectedVersion + 1;
+    }
+    
+    /**
+     * Why a targeted update matched no row; only costs a read on this failure path
+     */
+    private RuntimeException notUpdated(Long id, Long expectedVersion) {
+        if (expectedVersion != null && laptopRepository.existsById(id)) {
+            return new PreconditionFailedException(id, expectedVersion);
+        }
+        return new ResourceNotFoundException("Laptop", "id", id);
+    }
+    
+    /**
+     * Current version of a laptop, read from the version column alone
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> getLaptopVersion(Long id) {
+        if (id == null || id <= 0) {
+            throw new IllegalArgumentException("Invalid laptop ID");
+        }
+        return laptopRepository.findVersionById(id);
     }
     
     /**
@@ -240,6 +522,8 @@ public class LaptopService implements ILaptopService {
         
         if (laptopRepository.existsById(id)) {
             laptopRepository.deleteById(id);
+            catalogStatistics.onDeleted(id);
+            catalogRevisionService.bump();
             return true;
         }
         return false;
@@ -251,6 +535,8 @@ public class LaptopService implements ILaptopService {
     @Override
     public void deleteAllLaptops() {
         laptopRepository.deleteAll();
+        catalogStatistics.onBulkChange();
+        catalogRevisionService.bump();
     }
     
     /**
@@ -259,7 +545,7 @@ public class LaptopService implements ILaptopService {
     @Override
     @Transactional(readOnly = true)
     public long getTotalLaptopCount() {
-        return laptopRepository.count();
+        return catalogStatistics.snapshot().count();
     }
     
     /**
@@ -268,7 +554,7 @@ public class LaptopService implements ILaptopService {
     @Override
     @Transactional(readOnly = true)
     public double getAveragePrice() {
-        return laptopRepository.getAveragePrice().orElse(0.0);
+        return catalogStatistics.snapshot().averagePrice();
     }
     
     /**
@@ -277,8 +563,8 @@ public class LaptopService implements ILaptopService {
     @Override
     @Transactional(readOnly = true)
     public Laptop getMostExpensiveLaptop() {
-        return laptopRepository.getMostExpensiveLaptop()
-                .orElseThrow(() -> new ResourceNotFoundException("No laptops found"));
+        CatalogStatistics.Snapshot stats = catalogStatistics.snapshot();
+        return ranked(mostExpensive, stats, stats.dearestId());
     }
     
     /**
@@ -287,8 +573,65 @@ public class LaptopService implements ILaptopService {
     @Override
     @Transactional(readOnly = true)
     public Laptop getLeastExpensiveLaptop() {
-        return laptopRepository.getLeastExpensiveLaptop()
-                .orElseThrow(() -> new ResourceNotFoundException("No laptops found"));
+        CatalogStatistics.Snapshot stats = catalogStatistics.snapshot();
+        return ranked(leastExpensive, stats, stats.cheapestId());
+    }
+    
+    /**
+     * Strong ETag for catalog reads: the catalog revision, one primary-key read and
+     * no laptop rows. Read it before the data it describes, so a write committed in
+     * between can only make the tag older than the body, never newer.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public String getCatalogETag() {
+        return "\"" + Long.toString(catalogRevisionService.current(), 36) + "\"";
     }
-}
 
+    
+    /**
+     * Count, average, min/max and price histogram in one response, all from memory
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CatalogStats getCatalogStats() {
+        CatalogStatistics.Snapshot stats = catalogStatistics.snapshot();
+        long[] edges = stats.edgesCents();
+        List<PriceBucket> buckets = new ArrayList<>(stats.histogram().length);
+        for (int i = 0; i < stats.histogram().length; i++) {
+            Double from = i == 0 ? 0.0 : edges[i - 1] / 100.0;
+            Double to = i < edges.length ? edges[i] / 100.0 : null;
+            buckets.add(new PriceBucket(from, to, stats.histogram()[i]));
+        }
+        return new CatalogStats(stats.count(), stats.averagePrice(),
+                stats.minPrice(), stats.cheapestId(), stats.maxPrice(), stats.dearestId(),
+                buckets, stats.revision());
+    }
+    
+    /**
+     * The laptop at the top of a price heap; one primary-key read per statistics revision
+     */
+    private Laptop ranked(AtomicReference<RankedLaptop> cache, CatalogStatistics.Snapshot stats, Long id) {
+        if (id == null) {
+            throw new ResourceNotFoundException("No laptops found");
+        }
+        RankedLaptop cached = cache.get();
+        if (cached == null || cached.revision() != stats.revision()) {
+            Laptop laptop = laptopRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("No laptops found"));
+            entityManager.detach(laptop);
+            cached = new RankedLaptop(stats.revision(), laptop);
+            cache.set(cached);
+        }
+        // every caller gets its own copy, so none can change what the others are served
+        Laptop copy = new Laptop();
+        BeanUtils.copyProperties(cached.laptop(), copy);
+        return copy;
+    }
+    
+    /**
+     * @param laptop detached row as of {@code revision}; never handed out itself
+     */
+    private record RankedLaptop(long revision, Laptop laptop) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.soul.api.service;
+
+import com.soul.api.model.Laptop;
+import com.soul.api.repository.LaptopRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * At startup, fills ram_mb, storage_gb and storage_type for laptops written
+ * before those columns existed or by plain SQL. Walks the candidates by id, so
+ * rows whose text cannot be parsed are visited once and left null.
+ */
+@Service
+public class LaptopSpecBackfill implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(LaptopSpecBackfill.class);
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private LaptopRepository laptopRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CatalogRevisionService catalogRevisionService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long afterId = 0;
+        long visited = 0;
+        while (true) {
+            long from = afterId;
+            List<Laptop> batch = transactionTemplate.execute(status -> {
+                List<Laptop> laptops = laptopRepository.findSpecBackfillPage(from, PageRequest.of(0, BATCH_SIZE));
+                laptops.forEach(LaptopSpecs::apply);
+                List<Laptop> saved = laptopRepository.saveAll(laptops);
+                if (!saved.isEmpty()) {
+                    catalogRevisionService.bump();
+                }
+                return saved;
+            });
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            visited += batch.size();
+            afterId = batch.get(batch.size() - 1).getId();
+        }
+        if (visited > 0) {
+            logger.info("Backfilled ram_mb/storage_gb/storage_type for {} laptops", visited);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.soul.api.service;
+
+import com.soul.api.model.Laptop;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parses the free-text ram and storage fields into the numeric columns used by
+ * range queries: {@code ram_mb}, {@code storage_gb} and {@code storage_type}.
+ * <p>
+ * Capacities are binary: 1 GB of RAM is 1024 MB and 1 TB of storage is 1024 GB.
+ * A field that is just a number is taken as GB. Storage listing several drives
+ * ("1TB HDD + 256GB SSD") is summed, with type HYBRID when the drive types differ.
+ * Text that cannot be parsed leaves the column null rather than failing the write.
+ */
+final class LaptopSpecs {
+
+    static final String SSD = "SSD";
+    static final String HDD = "HDD";
+    static final String EMMC = "EMMC";
+    static final String HYBRID = "HYBRID";
+    static final List<String> STORAGE_TYPES = List.of(SSD, HDD, EMMC, HYBRID);
+
+    // a unit is required so "M.2", "DDR5" or "5400 RPM" are not read as capacities
+    private static final Pattern CAPACITY = Pattern.compile("(?<![\\w.])(\\d+(?:\\.\\d+)?)\\s*(TB|GB|MB)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern BARE_NUMBER = Pattern.compile("\\s*(\\d+(?:\\.\\d+)?)\\s*");
+
+    private LaptopSpecs() {
+    }
+
+    /**
+     * Recompute the numeric spec columns from the text fields
+     */
+    static void apply(Laptop laptop) {
+        laptop.setRamMb(parseRamMb(laptop.getRam()));
+        Storage storage = parseStorage(laptop.getStorage());
+        laptop.setStorageGb(storage.gb());
+        laptop.setStorageType(storage.type());
+    }
+
+    /**
+     * "16GB", "16 GB DDR5", "16384MB", "1TB" -> megabytes; null if no capacity is found
+     */
+    static Integer parseRamMb(String ram) {
+        if (ram == null) {
+            return null;
+        }
+        Matcher m = CAPACITY.matcher(ram);
+        if (!m.find()) {
+            Matcher bare = BARE_NUMBER.matcher(ram);
+            return bare.matches() ? parseRamMb(bare.group(1) + "GB") : null;
+        }
+        double amount = Double.parseDouble(m.group(1));
+        String unit = m.group(2).toUpperCase(Locale.ROOT);
+        double mb = switch (unit) {
+            case "TB" -> amount * 1024 * 1024;
+            case "MB" -> amount;
+            default -> amount * 1024;
+        };
+        return mb > 0 && mb <= Integer.MAX_VALUE ? (int) Math.round(mb) : null;
+    }
+
+    /**
+     * "512GB SSD", "1TB NVMe", "1TB HDD + 256GB SSD" -> total gigabytes and drive type
+     */
+    static Storage parseStorage(String storage) {
+        if (storage == null) {
+            return Storage.UNKNOWN;
+        }
+        Matcher bare = BARE_NUMBER.matcher(storage);
+        if (bare.matches()) {
+            return parseStorage(bare.group(1) + "GB");
+        }
+        // each capacity owns the text up to the next one: "1TB HDD + 256GB SSD"
+        Matcher m = CAPACITY.matcher(storage);
+        double totalGb = 0;
+        String type = null;
+        boolean found = m.find();
+        while (found) {
+            double amount = Double.parseDouble(m.group(1));
+            String unit = m.group(2).toUpperCase(Locale.ROOT);
+            totalGb += switch (unit) {
+                case "TB" -> amount * 1024;
+                case "MB" -> amount / 1024;
+                default -> amount;
+            };
+            int from = m.end();
+            found = m.find();
+            String driveType = driveType(storage.substring(from, found ? m.start() : storage.length()));
+            if (driveType != null) {
+                type = type == null || type.equals(driveType) ? driveType : HYBRID;
+            }
+        }
+        if (type == null) {
+            // "SSD 512GB": the type came before the capacity
+            type = driveType(storage);
+        }
+        if (totalGb <= 0 || totalGb > Integer.MAX_VALUE) {
+            return new Storage(null, type);
+        }
+        return new Storage((int) Math.round(totalGb), type);
+    }
+
+    private static String driveType(String text) {
+        String t = text.toUpperCase(Locale.ROOT);
+        if (t.contains("SSD") || t.contains("NVME") || t.contains("M.2") || t.contains("PCIE")) {
+            return SSD;
+        }
+        if (t.contains("HDD") || t.contains("RPM")) {
+            return HDD;
+        }
+        if (t.contains("EMMC")) {
+            return EMMC;
+        }
+        return null;
+    }
+
+    record Storage(Integer gb, String type) {
+        static final Storage UNKNOWN = new Storage(null, null);
+    }
+}
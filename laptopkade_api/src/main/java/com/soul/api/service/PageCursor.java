@@ -0,0 +1,49 @@
+package com.soul.api.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor: the sort key of the last row of a page.
+ * Encoded as URL-safe base64 so clients treat it as a token and just pass it back.
+ */
+public record PageCursor(String sort, Double price, long id) {
+
+    public static final String SORT_ID = "id";
+    public static final String SORT_PRICE = "price";
+
+    /**
+     * Cursor positioned before the first row for the given sort
+     */
+    public static PageCursor first(String sort) {
+        return new PageCursor(sort, SORT_PRICE.equals(sort) ? -1.0 : null, 0L);
+    }
+
+    public String encode() {
+        String raw = SORT_PRICE.equals(sort) ? sort + ":" + price + ":" + id : sort + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String token, String expectedSort) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (!parts[0].equals(expectedSort)) {
+            throw new IllegalArgumentException("Cursor does not match sort '" + expectedSort + "'");
+        }
+        try {
+            if (SORT_PRICE.equals(expectedSort) && parts.length == 3) {
+                return new PageCursor(SORT_PRICE, Double.parseDouble(parts[1]), Long.parseLong(parts[2]));
+            }
+            if (SORT_ID.equals(expectedSort) && parts.length == 2) {
+                return new PageCursor(SORT_ID, null, Long.parseLong(parts[1]));
+            }
+        } catch (NumberFormatException e) {
+            // fall through
+        }
+        throw new IllegalArgumentException("Invalid cursor");
+    }
+}
@@ -0,0 +1,165 @@
+package com.soul.api.service;
+
+import com.soul.api.exception.InsufficientStockException;
+import com.soul.api.exception.ResourceNotFoundException;
+import com.soul.api.model.StockReservation;
+import com.soul.api.repository.LaptopRepository;
+import com.soul.api.repository.StockReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds stock for a checkout until it is confirmed, released or expires.
+ * <p>
+ * Stock is taken with a single conditional {@code UPDATE ... WHERE stock >= ?}, so
+ * the database never oversells even across nodes. Within one node, callers for the
+ * same SKU are first serialized on a striped lock so a hot item queues in memory
+ * instead of piling up row-lock waits on the database.
+ */
+@Service
+public class StockReservationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationService.class);
+    private static final int STRIPES = 64;
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    @Autowired
+    private LaptopRepository laptopRepository;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CatalogStatistics catalogStatistics;
+
+    @Autowired
+    private CatalogRevisionService catalogRevisionService;
+
+    @Value("${app.stock.reservation-ttl-minutes:15}")
+    private long reservationTtlMinutes;
+
+    public StockReservationService() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Reserve stock for a laptop; throws InsufficientStockException if not enough is left
+     */
+    public StockReservation reserve(Long laptopId, Integer quantity) {
+        if (laptopId == null || laptopId <= 0) {
+            throw new IllegalArgumentException("Invalid laptop ID");
+        }
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+
+        ReentrantLock lock = stripeFor(laptopId);
+        lock.lock();
+        try {
+            return transactionTemplate.execute(status -> {
+                if (laptopRepository.decrementStock(laptopId, quantity) == 0) {
+                    if (!laptopRepository.existsById(laptopId)) {
+                        throw new ResourceNotFoundException("Laptop", "id", laptopId);
+                    }
+                    throw new InsufficientStockException(laptopId, quantity);
+                }
+                catalogStatistics.onTouched(laptopId);
+                StockReservation reservation = new StockReservation();
+                reservation.setLaptopId(laptopId);
+                reservation.setQuantity(quantity);
+                reservation.setStatus(StockReservation.HELD);
+                reservation.setExpiresAt(LocalDateTime.now().plusMinutes(reservationTtlMinutes));
+                StockReservation saved = reservationRepository.save(reservation);
+                catalogRevisionService.bump();
+                return saved;
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Turn a held reservation into a sale; the stock stays taken
+     */
+    public StockReservation confirm(Long reservationId) {
+        return transactionTemplate.execute(status -> {
+            StockReservation reservation = findReservation(reservationId);
+            if (reservationRepository.transition(reservationId, StockReservation.HELD, StockReservation.CONFIRMED) == 0) {
+                throw new IllegalArgumentException("Reservation " + reservationId + " is " + reservation.getStatus());
+            }
+            reservation.setStatus(StockReservation.CONFIRMED);
+            return reservation;
+        });
+    }
+
+    /**
+     * Give held stock back (abandoned or cancelled checkout)
+     */
+    public StockReservation release(Long reservationId) {
+        return transactionTemplate.execute(status -> {
+            StockReservation reservation = findReservation(reservationId);
+            if (reservationRepository.transition(reservationId, StockReservation.HELD, StockReservation.RELEASED) == 0) {
+                throw new IllegalArgumentException("Reservation " + reservationId + " is " + reservation.getStatus());
+            }
+            laptopRepository.incrementStock(reservation.getLaptopId(), reservation.getQuantity());
+            catalogStatistics.onTouched(reservation.getLaptopId());
+            catalogRevisionService.bump();
+            reservation.setStatus(StockReservation.RELEASED);
+            return reservation;
+        });
+    }
+
+    /**
+     * Return stock held by reservations whose checkout was abandoned
+     */
+    @Scheduled(fixedDelayString = "${app.stock.reservation-sweep-ms:60000}")
+    public void expireReservations() {
+        List<StockReservation> expired = reservationRepository
+                .findByStatusAndExpiresAtBefore(StockReservation.HELD, LocalDateTime.now());
+        int released = 0;
+        for (StockReservation reservation : expired) {
+            Boolean done = transactionTemplate.execute(status -> {
+                if (reservationRepository.transition(reservation.getId(), StockReservation.HELD, StockReservation.EXPIRED) == 0) {
+                    return false; // confirmed or released meanwhile
+                }
+                laptopRepository.incrementStock(reservation.getLaptopId(), reservation.getQuantity());
+                catalogStatistics.onTouched(reservation.getLaptopId());
+                catalogRevisionService.bump();
+                return true;
+            });
+            if (Boolean.TRUE.equals(done)) {
+                released++;
+            }
+        }
+        if (released > 0) {
+            logger.info("Expired {} abandoned stock reservations", released);
+        }
+    }
+
+    private StockReservation findReservation(Long reservationId) {
+        if (reservationId == null || reservationId <= 0) {
+            throw new IllegalArgumentException("Invalid reservation ID");
+        }
+        return reservationRepository.findById(reservationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Reservation", "id", reservationId));
+    }
+
+    private ReentrantLock stripeFor(Long laptopId) {
+        return stripes[(int) Math.floorMod(laptopId ^ (laptopId >>> 32), (long) STRIPES)];
+    }
+}
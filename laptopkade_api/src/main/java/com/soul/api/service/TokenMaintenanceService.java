@@ -0,0 +1,105 @@
+package com.soul.api.service;
+
+import com.soul.api.model.Token;
+import com.soul.api.repository.TokenRepository;
+import com.soul.api.security.TokenHashing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the tokens table indexed and bounded.
+ * <ul>
+ *   <li>At startup, backfills token_hash for rows written before the column existed.
+ *   Tokens issued before they carried a jti could be byte-identical; such duplicates
+ *   are merged into one row so the unique index on token_hash holds</li>
+ *   <li>Periodically deletes tokens that expired more than the grace period ago</li>
+ * </ul>
+ */
+@Service
+public class TokenMaintenanceService implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenMaintenanceService.class);
+
+    @Autowired
+    private TokenRepository tokenRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.jwt.purge-grace-hours:24}")
+    private long purgeGraceHours;
+
+    /**
+     * Runs before ApplicationReadyEvent, so the revocation cache sees every hash when it loads
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        long migrated = 0;
+        long merged = 0;
+        while (true) {
+            BackfillBatch batch = transactionTemplate.execute(status -> backfillBatch());
+            if (batch == null || batch.size() == 0) {
+                break;
+            }
+            migrated += batch.size();
+            merged += batch.merged();
+        }
+        if (migrated > 0) {
+            logger.info("Backfilled token_hash for {} existing tokens, merged {} duplicates", migrated, merged);
+        }
+    }
+
+    private BackfillBatch backfillBatch() {
+        List<Token> tokens = tokenRepository.findTop500ByTokenHashIsNull();
+        Map<String, Token> hashed = new HashMap<>();
+        int merged = 0;
+        for (Token token : tokens) {
+            String hash = TokenHashing.sha256Hex(token.getTokenValue());
+            Token kept = hashed.get(hash);
+            if (kept == null) {
+                kept = tokenRepository.findByTokenHash(hash).orElse(null);
+            }
+            if (kept == null) {
+                token.setTokenHash(hash);
+                hashed.put(hash, token);
+                continue;
+            }
+            // same token string twice: keep one row, revoked if either was, expiring at the later time
+            kept.setRevoked(kept.getRevoked() || token.getRevoked());
+            if (token.getExpiresAt().isAfter(kept.getExpiresAt())) {
+                kept.setExpiresAt(token.getExpiresAt());
+            }
+            tokenRepository.delete(token);
+            merged++;
+        }
+        tokenRepository.saveAll(hashed.values());
+        return new BackfillBatch(tokens.size(), merged);
+    }
+
+    /**
+     * Delete tokens that expired more than the grace period ago
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.purge-interval-ms:3600000}")
+    public void purgeExpiredTokens() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(purgeGraceHours);
+        Integer deleted = transactionTemplate.execute(status -> tokenRepository.deleteExpiredBefore(cutoff));
+        if (deleted != null && deleted > 0) {
+            logger.info("Purged {} tokens expired before {}", deleted, cutoff);
+        }
+    }
+
+    private record BackfillBatch(int size, int merged) {
+    }
+}
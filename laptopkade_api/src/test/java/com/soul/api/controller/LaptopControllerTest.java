@@ -0,0 +1,208 @@
+package com.soul.api.controller;
+
+import com.soul.api.exception.GlobalExceptionHandler;
+import com.soul.api.model.Laptop;
+import com.soul.api.repository.LaptopRepository;
+import com.soul.api.service.CatalogRevisionService;
+import com.soul.api.service.CatalogStatistics;
+import com.soul.api.service.LaptopFacetIndex;
+import com.soul.api.service.LaptopImportService;
+import com.soul.api.service.LaptopService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import({LaptopController.class, LaptopService.class, LaptopImportService.class, CatalogStatistics.class,
+        LaptopFacetIndex.class, CatalogRevisionService.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LaptopControllerTest {
+
+    @Autowired
+    private LaptopController laptopController;
+
+    @Autowired
+    private LaptopService laptopService;
+
+    @Autowired
+    private LaptopRepository laptopRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(laptopController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        laptopRepository.deleteAll();
+    }
+
+    @Test
+    void matchingIfMatchUpdatesAndReturnsTheNewETag() throws Exception {
+        Laptop laptop = saveLaptop();
+        long version = laptop.getVersion();
+
+        putLaptop(laptop.getId(), etag(version), "{\"price\": 1199.0}")
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag(version + 1)));
+        mockMvc.perform(patch("/api/laptops/{id}/stock", laptop.getId())
+                        .param("stock", "7")
+                        .header(HttpHeaders.IF_MATCH, etag(version + 1))
+                        .header("Prefer", "return=minimal"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(HttpHeaders.ETAG, etag(version + 2)))
+                .andExpect(header().string("Preference-Applied", "return=minimal"));
+        mockMvc.perform(patch("/api/laptops/{id}/price", laptop.getId())
+                        .param("price", "999.0")
+                        .header(HttpHeaders.IF_MATCH, etag(version + 2)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag(version + 3)));
+
+        Laptop stored = laptopRepository.findById(laptop.getId()).orElseThrow();
+        assertEquals(999.0, stored.getPrice());
+        assertEquals(7, stored.getStock());
+        assertEquals(version + 3, stored.getVersion());
+    }
+
+    @Test
+    void staleIfMatchIsRejectedAndLeavesTheRowUnchanged() throws Exception {
+        Laptop laptop = saveLaptop();
+        long version = laptop.getVersion();
+        laptopService.updateLaptopStock(laptop.getId(), 5, version);
+
+        putLaptop(laptop.getId(), etag(version), "{\"price\": 1.0}")
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(patch("/api/laptops/{id}/stock", laptop.getId())
+                        .param("stock", "1")
+                        .header(HttpHeaders.IF_MATCH, etag(version)))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(patch("/api/laptops/{id}/price", laptop.getId())
+                        .param("price", "1.0")
+                        .header(HttpHeaders.IF_MATCH, etag(version)))
+                .andExpect(status().isPreconditionFailed());
+        // If-Match compares strongly, so a weak tag never matches even with the current version
+        putLaptop(laptop.getId(), "W/" + etag(version + 1), "{\"price\": 1.0}")
+                .andExpect(status().isPreconditionFailed());
+
+        Laptop stored = laptopRepository.findById(laptop.getId()).orElseThrow();
+        assertEquals(1299.99, stored.getPrice());
+        assertEquals(5, stored.getStock());
+        assertEquals(version + 1, stored.getVersion());
+    }
+
+    @Test
+    void wildcardOrMissingIfMatchUpdatesWhateverIsCurrent() throws Exception {
+        Laptop laptop = saveLaptop();
+        long version = laptop.getVersion();
+        laptopService.updateLaptopStock(laptop.getId(), 5, version);
+
+        putLaptop(laptop.getId(), "*", "{\"price\": 1099.0}")
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag(version + 2)));
+        putLaptop(laptop.getId(), null, "{\"price\": 1049.0}")
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag(version + 3)));
+        // without If-Match the new version is not known without a read, so no tag is sent
+        mockMvc.perform(patch("/api/laptops/{id}/stock", laptop.getId())
+                        .param("stock", "3")
+                        .header("Prefer", "return=minimal"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+
+        Laptop stored = laptopRepository.findById(laptop.getId()).orElseThrow();
+        assertEquals(1049.0, stored.getPrice());
+        assertEquals(3, stored.getStock());
+    }
+
+    @Test
+    void putThatLosesARaceWithTheSameIfMatchGetsConflict() throws Exception {
+        Laptop laptop = saveLaptop();
+        long version = laptop.getVersion();
+        ExecutorService other = Executors.newSingleThreadExecutor();
+
+        // this request's transaction has already read the laptop and passed the If-Match check ...
+        TransactionStatus tx = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            laptopRepository.findById(laptop.getId()).orElseThrow();
+
+            // ... when another PUT with the same If-Match commits first
+            int winner = other.submit(() -> putLaptop(laptop.getId(), etag(version), "{\"price\": 1100.0}")
+                    .andReturn().getResponse().getStatus()).get(30, TimeUnit.SECONDS);
+            assertEquals(200, winner);
+
+            putLaptop(laptop.getId(), etag(version), "{\"price\": 900.0}")
+                    .andExpect(status().isConflict());
+        } finally {
+            transactionManager.rollback(tx);
+            other.shutdown();
+        }
+
+        Laptop stored = laptopRepository.findById(laptop.getId()).orElseThrow();
+        assertEquals(1100.0, stored.getPrice());
+        assertEquals(version + 1, stored.getVersion());
+    }
+
+    private ResultActions putLaptop(Long id, String ifMatch, String body) throws Exception {
+        MockHttpServletRequestBuilder request = put("/api/laptops/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body);
+        if (ifMatch != null) {
+            request.header(HttpHeaders.IF_MATCH, ifMatch);
+        }
+        return mockMvc.perform(request);
+    }
+
+    private static String etag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    private Laptop saveLaptop() {
+        Laptop laptop = new Laptop();
+        laptop.setBrand("Dell");
+        laptop.setModel("XPS 13");
+        laptop.setProcessor("Intel i7");
+        laptop.setRam("16GB");
+        laptop.setStorage("512GB SSD");
+        laptop.setGraphicsCard("Intel Iris Xe");
+        laptop.setPrice(1299.99);
+        laptop.setStock(10);
+        return laptopRepository.save(laptop);
+    }
+}
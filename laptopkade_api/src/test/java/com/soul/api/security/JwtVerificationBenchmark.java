@@ -0,0 +1,79 @@
+package com.soul.api.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token.
+ * <ul>
+ *   <li>{@code legacyValidateThenGetUsername} - what the filter used to do: derive the key and
+ *   build a parser twice, verifying the HMAC twice</li>
+ *   <li>{@code singleParse} - one verification with the prebuilt parser</li>
+ *   <li>{@code cachedVerify} - the filter's path for a token seen recently</li>
+ * </ul>
+ * Run with the {@link #main} method (IDE) after {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "mySecureSecretKeyThatIsLongerThan32CharactersForHS256AlgorithmSecurity123!@#";
+
+    private JwtTokenProvider provider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpiration", 86_400_000L);
+        ReflectionTestUtils.setField(provider, "verifyCacheSize", 10_000);
+        provider.init();
+        token = provider.generateToken("bench_user", "bench@example.com");
+    }
+
+    @Benchmark
+    public String legacyValidateThenGetUsername() {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        Jwts.parser().verifyWith(key).build().parseSignedClaims(token);
+        SecretKey again = Keys.hmacShaKeyFor(SECRET.getBytes());
+        return Jwts.parser().verifyWith(again).build().parseSignedClaims(token).getPayload().getSubject();
+    }
+
+    @Benchmark
+    public String singleParse() {
+        return provider.parseClaims(token).getSubject();
+    }
+
+    @Benchmark
+    public String cachedVerify() {
+        return provider.verify(token).username();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
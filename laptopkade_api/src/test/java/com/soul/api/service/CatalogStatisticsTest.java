@@ -0,0 +1,188 @@
+package com.soul.api.service;
+
+import com.soul.api.model.Laptop;
+import com.soul.api.repository.LaptopRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.stats.price-buckets=500,1000"
+})
+@Import(CatalogStatistics.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CatalogStatisticsTest {
+
+    @Autowired
+    private CatalogStatistics catalogStatistics;
+
+    @Autowired
+    private LaptopRepository laptopRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        catalogStatistics.reconcile();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        laptopRepository.deleteAll();
+        catalogStatistics.reconcile();
+    }
+
+    @Test
+    void changesAreAppliedOnlyOnceTheTransactionCommits() {
+        Laptop cheap = laptopRepository.save(laptop("HP", 449.5));
+        catalogStatistics.reconcile();
+        CatalogStatistics.Snapshot before = catalogStatistics.snapshot();
+
+        Long[] dearId = new Long[1];
+        transactionTemplate.executeWithoutResult(status -> {
+            Laptop dear = laptopRepository.save(laptop("Dell", 1299.99));
+            dearId[0] = dear.getId();
+            catalogStatistics.onSaved(dear.getId(), dear.getPrice());
+            // not committed yet: readers still see the old numbers
+            assertSame(before, catalogStatistics.snapshot());
+        });
+
+        CatalogStatistics.Snapshot after = catalogStatistics.snapshot();
+        assertEquals(before.revision() + 1, after.revision());
+        assertEquals(2, after.count());
+        assertEquals(44950 + 129999, after.sumCents());
+        assertEquals(cheap.getId(), after.cheapestId());
+        assertEquals(dearId[0], after.dearestId());
+        assertEquals(1299.99, after.maxPrice());
+        assertEquals(449.5, after.minPrice());
+        assertEquals((449.5 + 1299.99) / 2, after.averagePrice(), 0.001);
+    }
+
+    @Test
+    void rolledBackChangesLeaveTheStatisticsUnchanged() {
+        Laptop existing = laptopRepository.save(laptop("HP", 449.5));
+        catalogStatistics.reconcile();
+        CatalogStatistics.Snapshot before = catalogStatistics.snapshot();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Laptop dear = laptopRepository.save(laptop("Dell", 1299.99));
+            catalogStatistics.onSaved(dear.getId(), dear.getPrice());
+            catalogStatistics.onSaved(existing.getId(), 10.0);
+            catalogStatistics.onDeleted(existing.getId());
+            catalogStatistics.onBulkChange();
+            status.setRollbackOnly();
+        });
+
+        CatalogStatistics.Snapshot after = catalogStatistics.snapshot();
+        assertSame(before, after);
+        assertEquals(1, after.count());
+        assertEquals(existing.getId(), after.dearestId());
+    }
+
+    @Test
+    void reconcileRepairsChangesThatBypassedTheNotifications() {
+        Laptop first = laptopRepository.save(laptop("HP", 449.5));
+        Laptop second = laptopRepository.save(laptop("Lenovo", 899.0));
+        catalogStatistics.reconcile();
+        CatalogStatistics.Snapshot before = catalogStatistics.snapshot();
+        assertEquals(2, before.count());
+
+        // written straight through the repository: nothing tells the statistics
+        second.setPrice(1999.0);
+        laptopRepository.save(second);
+        laptopRepository.deleteById(first.getId());
+        Laptop added = laptopRepository.save(laptop("Dell", 299.0));
+        assertSame(before, catalogStatistics.snapshot());
+
+        catalogStatistics.reconcile();
+
+        CatalogStatistics.Snapshot repaired = catalogStatistics.snapshot();
+        assertEquals(before.revision() + 1, repaired.revision());
+        assertEquals(2, repaired.count());
+        assertEquals(199900 + 29900, repaired.sumCents());
+        assertEquals(added.getId(), repaired.cheapestId());
+        assertEquals(second.getId(), repaired.dearestId());
+        // buckets: up to 500, up to 1000, above
+        assertEquals(1, repaired.histogram()[0]);
+        assertEquals(0, repaired.histogram()[1]);
+        assertEquals(1, repaired.histogram()[2]);
+
+        // nothing has drifted since, so a second pass keeps the revision
+        catalogStatistics.reconcile();
+        assertEquals(repaired.revision(), catalogStatistics.snapshot().revision());
+    }
+
+    @Test
+    void indexedHeapsTrackMinAndMaxThroughRepricesAndRemovals() {
+        CatalogStatistics.IndexedHeap cheapest = new CatalogStatistics.IndexedHeap(false);
+        CatalogStatistics.IndexedHeap dearest = new CatalogStatistics.IndexedHeap(true);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int step = 0; step < 20_000; step++) {
+            long id = random.nextInt(500);
+            if (random.nextInt(4) == 0) {
+                cheapest.remove(id);
+                dearest.remove(id);
+                expected.remove(id);
+            } else {
+                long cents = random.nextInt(300_000);
+                cheapest.put(id, cents);
+                dearest.put(id, cents);
+                expected.put(id, cents);
+            }
+
+            if (expected.isEmpty()) {
+                assertTrue(cheapest.isEmpty());
+                assertTrue(dearest.isEmpty());
+                continue;
+            }
+            Map.Entry<Long, Long> min = expected.entrySet().stream()
+                    .min(Map.Entry.<Long, Long>comparingByValue().thenComparing(Map.Entry.comparingByKey()))
+                    .orElseThrow();
+            Map.Entry<Long, Long> max = expected.entrySet().stream()
+                    .min(Map.Entry.<Long, Long>comparingByValue(Comparator.reverseOrder())
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .orElseThrow();
+            assertEquals((long) min.getKey(), cheapest.topId());
+            assertEquals((long) min.getValue(), cheapest.topCents());
+            assertEquals((long) max.getKey(), dearest.topId());
+            assertEquals((long) max.getValue(), dearest.topCents());
+        }
+    }
+
+    private static Laptop laptop(String brand, double price) {
+        Laptop laptop = new Laptop();
+        laptop.setBrand(brand);
+        laptop.setModel("Model");
+        laptop.setProcessor("Intel i7");
+        laptop.setRam("16GB");
+        laptop.setStorage("512GB SSD");
+        laptop.setGraphicsCard("Intel Iris Xe");
+        laptop.setPrice(price);
+        laptop.setStock(10);
+        return laptop;
+    }
+}
@@ -0,0 +1,211 @@
+package com.soul.api.service;
+
+import com.soul.api.dto.FacetCount;
+import com.soul.api.dto.FacetQuery;
+import com.soul.api.model.Laptop;
+import com.soul.api.repository.LaptopFacetView;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LaptopFacetIndexTest {
+
+    private static final String[] BRANDS = {"Dell", "HP", "Lenovo"};
+
+    // 130 laptops: three words of postings, the last one partly filled
+    private static final List<Row> ROWS = rows(130);
+
+    private static final LaptopFacetIndex.Snapshot INDEX = LaptopFacetIndex.build(1, new ArrayList<>(ROWS));
+
+    @Test
+    void bitsetsHandleWordBoundaries() {
+        assertArrayEquals(new long[]{-1L}, LaptopFacetIndex.Bits.all(64));
+        assertArrayEquals(new long[]{-1L, 1L}, LaptopFacetIndex.Bits.all(65));
+        assertEquals(0, LaptopFacetIndex.Bits.all(0).length);
+
+        long[] set = new long[LaptopFacetIndex.Bits.words(130)];
+        for (int bit : new int[]{0, 63, 64, 127, 129}) {
+            set[bit >>> 6] |= 1L << bit;
+        }
+        List<Integer> seen = new ArrayList<>();
+        for (int bit = LaptopFacetIndex.Bits.nextSetBit(set, 0); bit >= 0; bit = LaptopFacetIndex.Bits.nextSetBit(set, bit + 1)) {
+            seen.add(bit);
+        }
+        assertEquals(List.of(0, 63, 64, 127, 129), seen);
+        assertEquals(-1, LaptopFacetIndex.Bits.nextSetBit(set, 130));
+        assertEquals(-1, LaptopFacetIndex.Bits.nextSetBit(set, 192));
+
+        // the complement must not set the unused bits past 130
+        long[] rest = LaptopFacetIndex.Bits.not(set, 130);
+        assertEquals(125, LaptopFacetIndex.Bits.cardinality(rest));
+        assertEquals(0, LaptopFacetIndex.Bits.andCardinality(rest, set));
+
+        long[] union = rest.clone();
+        LaptopFacetIndex.Bits.orInto(union, set);
+        assertArrayEquals(LaptopFacetIndex.Bits.all(130), union);
+        LaptopFacetIndex.Bits.andInto(union, set);
+        assertArrayEquals(set, union);
+    }
+
+    @Test
+    void valuesWithinAFacetAreOredAndFacetsAreAnded() {
+        FacetQuery query = new FacetQuery();
+        query.setBrand(List.of("dell", " HP ", "Acer"));
+        query.setRam(List.of("16GB"));
+
+        LaptopFacetIndex.Result result = LaptopFacetIndex.search(INDEX, query, 0, 200);
+
+        List<Long> expected = ids(row -> (row.brand().equals("Dell") || row.brand().equals("HP"))
+                && row.ram().equals("16GB"));
+        assertEquals(expected, result.ids());
+        assertEquals(expected.size(), result.total());
+    }
+
+    @Test
+    void facetCountsIgnoreTheirOwnSelection() {
+        FacetQuery query = new FacetQuery();
+        query.setBrand(List.of("Dell"));
+        query.setRam(List.of("8GB"));
+
+        Map<String, List<FacetCount>> facets = LaptopFacetIndex.search(INDEX, query, 0, 10).facets();
+
+        // brand counts are filtered by ram only, so the other brands still show up
+        Map<String, Long> brands = counts(facets.get(LaptopFacetIndex.BRAND));
+        for (String brand : BRANDS) {
+            assertEquals(count(row -> row.brand().equals(brand) && row.ram().equals("8GB")), brands.get(brand));
+        }
+        // ram counts are filtered by brand only
+        Map<String, Long> ram = counts(facets.get(LaptopFacetIndex.RAM));
+        assertEquals(count(row -> row.brand().equals("Dell") && row.ram().equals("16GB")), ram.get("16GB"));
+        assertEquals(count(row -> row.brand().equals("Dell") && row.ram().equals("8GB")), ram.get("8GB"));
+    }
+
+    @Test
+    void priceRangeIsInclusiveAndCombinesWithStock() {
+        FacetQuery query = new FacetQuery();
+        query.setMinPrice(200.0);
+        query.setMaxPrice(300.0);
+
+        LaptopFacetIndex.Result result = LaptopFacetIndex.search(INDEX, query, 0, 200);
+        assertEquals(ids(row -> row.price() != null && row.price() >= 200 && row.price() <= 300), result.ids());
+        assertTrue(result.ids().contains(1010L));
+        assertTrue(result.ids().contains(1020L));
+
+        query.setMaxPrice(null);
+        query.setInStock(false);
+        result = LaptopFacetIndex.search(INDEX, query, 0, 200);
+        // a laptop without a price never falls in a range
+        assertEquals(ids(row -> row.price() != null && row.price() >= 200 && row.stock() == 0), result.ids());
+        assertFalse(result.ids().contains(1129L));
+    }
+
+    @Test
+    void pagesFollowIdOrderAcrossWords() {
+        FacetQuery query = new FacetQuery();
+
+        assertEquals(ids(row -> row.id() < 1050), LaptopFacetIndex.search(INDEX, query, 0, 50).ids());
+        assertEquals(ids(row -> row.id() >= 1050 && row.id() < 1100), LaptopFacetIndex.search(INDEX, query, 1, 50).ids());
+        LaptopFacetIndex.Result last = LaptopFacetIndex.search(INDEX, query, 2, 50);
+        assertEquals(ids(row -> row.id() >= 1100), last.ids());
+        assertEquals(130, last.total());
+        assertTrue(LaptopFacetIndex.search(INDEX, query, 3, 50).ids().isEmpty());
+    }
+
+    @Test
+    void rowsLoadedAfterTheSnapshotAreCheckedAgain() {
+        FacetQuery query = new FacetQuery();
+        query.setBrand(List.of("dell"));
+        query.setInStock(true);
+        query.setMaxPrice(500.0);
+
+        Laptop laptop = new Laptop();
+        laptop.setBrand("Dell");
+        laptop.setPrice(450.0);
+        laptop.setStock(3);
+        assertTrue(LaptopFacetIndex.matches(query, laptop));
+
+        laptop.setStock(0);
+        assertFalse(LaptopFacetIndex.matches(query, laptop));
+
+        laptop.setStock(3);
+        laptop.setPrice(550.0);
+        assertFalse(LaptopFacetIndex.matches(query, laptop));
+
+        laptop.setPrice(450.0);
+        laptop.setBrand("HP");
+        assertFalse(LaptopFacetIndex.matches(query, laptop));
+    }
+
+    private static List<Row> rows(int n) {
+        List<Row> rows = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            rows.add(new Row(1000L + i, BRANDS[i % BRANDS.length], i % 2 == 0 ? "16GB" : "8GB",
+                    i == n - 1 ? null : 100.0 + i * 10, i % 5 == 0 || i == n - 1 ? 0 : 1));
+        }
+        return rows;
+    }
+
+    private static List<Long> ids(Predicate<Row> filter) {
+        return ROWS.stream().filter(filter).map(Row::id).toList();
+    }
+
+    private static long count(Predicate<Row> filter) {
+        return ROWS.stream().filter(filter).count();
+    }
+
+    private static Map<String, Long> counts(List<FacetCount> facetCounts) {
+        return facetCounts.stream().collect(Collectors.toMap(FacetCount::getValue, FacetCount::getCount));
+    }
+
+    private record Row(Long id, String brand, String ram, Double price, Integer stock) implements LaptopFacetView {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getBrand() {
+            return brand;
+        }
+
+        @Override
+        public String getProcessor() {
+            return "Intel i7";
+        }
+
+        @Override
+        public String getRam() {
+            return ram;
+        }
+
+        @Override
+        public String getStorage() {
+            return "512GB SSD";
+        }
+
+        @Override
+        public String getGraphicsCard() {
+            return "Intel Iris Xe";
+        }
+
+        @Override
+        public Double getPrice() {
+            return price;
+        }
+
+        @Override
+        public Integer getStock() {
+            return stock;
+        }
+    }
+}
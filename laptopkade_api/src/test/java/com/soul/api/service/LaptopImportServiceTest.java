@@ -0,0 +1,28 @@
+package com.soul.api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LaptopImportServiceTest {
+
+    @Test
+    void csvRecordsKeepTheLineTheyStartOn() {
+        String csv = "brand,model\r\n"
+                + "\r\n"
+                + "Dell,\"XPS\nwith a note\"\n"
+                + "HP,Envy\n"
+                + "\n"
+                + "Lenovo,\"Yoga\r\n\"\"Pro\"\"\"\r\n"
+                + "Asus,Zenbook";
+
+        List<LaptopImportService.CsvRecord> records = LaptopImportService.parseCsv(csv);
+
+        assertEquals(List.of(1, 3, 5, 7, 9), records.stream().map(LaptopImportService.CsvRecord::line).toList());
+        assertEquals(List.of("Dell", "XPS\nwith a note"), records.get(1).fields());
+        assertEquals(List.of("Lenovo", "Yoga\r\n\"Pro\""), records.get(3).fields());
+        assertEquals(List.of("Asus", "Zenbook"), records.get(4).fields());
+    }
+}
@@ -0,0 +1,35 @@
+package com.soul.api.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LaptopSpecsTest {
+
+    @Test
+    void parsesRamIntoMegabytes() {
+        assertRamMb(16384, "16GB");
+        assertRamMb(8192, "8 GB DDR4");
+        assertRamMb(16384, "DDR5 16GB");
+        assertRamMb(16384, "16384MB");
+        assertRamMb(12288, "12");
+        assertNull(LaptopSpecs.parseRamMb("unknown"));
+        assertNull(LaptopSpecs.parseRamMb(null));
+    }
+
+    private static void assertRamMb(int expected, String ram) {
+        assertEquals(Integer.valueOf(expected), LaptopSpecs.parseRamMb(ram), ram);
+    }
+
+    @Test
+    void parsesStorageCapacityAndType() {
+        assertEquals(new LaptopSpecs.Storage(512, LaptopSpecs.SSD), LaptopSpecs.parseStorage("512GB SSD"));
+        assertEquals(new LaptopSpecs.Storage(1024, LaptopSpecs.SSD), LaptopSpecs.parseStorage("1TB M.2 NVMe"));
+        assertEquals(new LaptopSpecs.Storage(256, LaptopSpecs.SSD), LaptopSpecs.parseStorage("SSD 256GB"));
+        assertEquals(new LaptopSpecs.Storage(1024, LaptopSpecs.HDD), LaptopSpecs.parseStorage("1TB 5400 RPM"));
+        assertEquals(new LaptopSpecs.Storage(1280, LaptopSpecs.HYBRID), LaptopSpecs.parseStorage("1TB HDD + 256GB SSD"));
+        assertEquals(new LaptopSpecs.Storage(64, LaptopSpecs.EMMC), LaptopSpecs.parseStorage("64GB eMMC"));
+        assertEquals(LaptopSpecs.Storage.UNKNOWN, LaptopSpecs.parseStorage("unknown"));
+    }
+}
@@ -0,0 +1,129 @@
+package com.soul.api.service;
+
+import com.soul.api.exception.InsufficientStockException;
+import com.soul.api.model.Laptop;
+import com.soul.api.model.StockReservation;
+import com.soul.api.repository.LaptopRepository;
+import com.soul.api.repository.StockReservationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import({StockReservationService.class, CatalogStatistics.class, CatalogRevisionService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockReservationServiceTest {
+
+    private static final int THREADS = 200;
+    private static final int ATTEMPTS = 2000;
+    private static final int STOCK = 150;
+
+    @Autowired
+    private StockReservationService reservationService;
+
+    @Autowired
+    private LaptopRepository laptopRepository;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private CatalogRevisionService catalogRevisionService;
+
+    @AfterEach
+    void cleanUp() {
+        reservationRepository.deleteAll();
+        laptopRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentReservationsOnOneSkuNeverOversell() throws Exception {
+        Long laptopId = saveLaptop(STOCK).getId();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < ATTEMPTS; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    reservationService.reserve(laptopId, 1);
+                    reserved.incrementAndGet();
+                } catch (InsufficientStockException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(STOCK, reserved.get());
+        assertEquals(ATTEMPTS - STOCK, rejected.get());
+        assertEquals(0, laptopRepository.findById(laptopId).orElseThrow().getStock());
+        assertEquals(STOCK, reservationRepository.count());
+    }
+
+    @Test
+    void releaseAndExpiryReturnStockExactlyOnce() {
+        Long laptopId = saveLaptop(2).getId();
+        long revision = catalogRevisionService.current();
+        StockReservation released = reservationService.reserve(laptopId, 1);
+        StockReservation abandoned = reservationService.reserve(laptopId, 1);
+        assertThrows(InsufficientStockException.class, () -> reservationService.reserve(laptopId, 1));
+        // the rejected reservation rolled back its increment along with everything else
+        assertEquals(revision + 2, catalogRevisionService.current());
+
+        reservationService.release(released.getId());
+        assertThrows(IllegalArgumentException.class, () -> reservationService.release(released.getId()));
+
+        abandoned.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+        reservationRepository.save(abandoned);
+        reservationService.expireReservations();
+        reservationService.expireReservations();
+
+        assertEquals(2, laptopRepository.findById(laptopId).orElseThrow().getStock());
+        assertEquals(revision + 4, catalogRevisionService.current());
+        assertTrue(reservationRepository.findByStatusAndExpiresAtBefore(StockReservation.HELD, LocalDateTime.now()).isEmpty());
+    }
+
+    private Laptop saveLaptop(int stock) {
+        Laptop laptop = new Laptop();
+        laptop.setBrand("Dell");
+        laptop.setModel("XPS 13");
+        laptop.setProcessor("Intel i7");
+        laptop.setRam("16GB");
+        laptop.setStorage("512GB SSD");
+        laptop.setGraphicsCard("Intel Iris Xe");
+        laptop.setPrice(1299.99);
+        laptop.setStock(stock);
+        return laptopRepository.save(laptop);
+    }
+}
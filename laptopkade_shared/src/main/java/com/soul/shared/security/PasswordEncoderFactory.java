@@ -0,0 +1,135 @@
+package com.soul.shared.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Builds the password encoder shared by the storefront and the API, which keep their
+ * users in the same schema.
+ * <p>
+ * New hashes are written as {@code {bcrypt}$2a$NN$...} at a cost picked for this machine,
+ * while bare BCrypt hashes from before the prefix existed still verify.
+ * {@link PasswordEncoder#upgradeEncoding} reports an unprefixed hash, and a hash whose
+ * cost is off target, so logins can rehash it:
+ * <ul>
+ *   <li>with {@code app.auth.bcrypt-cost} pinned, any other cost is rehashed, in either
+ *   direction, so lowering the setting also lowers the login CPU of existing users</li>
+ *   <li>with the cost calibrated per node, only a lower cost is rehashed: nodes that
+ *   calibrate differently converge on the highest cost among them instead of rehashing
+ *   the same users back and forth, and a node that calibrates low does not weaken
+ *   hashes written elsewhere</li>
+ * </ul>
+ */
+public final class PasswordEncoderFactory {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordEncoderFactory.class);
+
+    private static final String BCRYPT_ID = "bcrypt";
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$");
+    private static final int CALIBRATION_RUNS = 3;
+
+    private PasswordEncoderFactory() {
+    }
+
+    /**
+     * @param fixedCost BCrypt cost to pin; 0 calibrates against {@code targetMillis}
+     */
+    public static PasswordEncoder create(int fixedCost, long targetMillis, int minCost, int maxCost) {
+        if (fixedCost > 0) {
+            return pinned(fixedCost);
+        }
+        return delegating(calibrate(targetMillis, minCost, maxCost));
+    }
+
+    /**
+     * Delegating encoder that hashes new passwords with BCrypt at {@code cost}; the stock
+     * BCrypt encoder only asks for an upgrade when the stored cost is lower
+     */
+    public static PasswordEncoder delegating(int cost) {
+        return delegating(new BCryptPasswordEncoder(cost));
+    }
+
+    /**
+     * Delegating encoder that hashes new passwords with BCrypt at {@code cost} and asks
+     * for a rehash of any stored hash at another cost, higher or lower
+     */
+    public static PasswordEncoder pinned(int cost) {
+        return delegating(new PinnedCostBCryptPasswordEncoder(cost));
+    }
+
+    private static PasswordEncoder delegating(BCryptPasswordEncoder bcrypt) {
+        Map<String, PasswordEncoder> encoders = Map.of(BCRYPT_ID, bcrypt);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(BCRYPT_ID, encoders);
+        // hashes stored before the {id} prefix was introduced are plain BCrypt
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+
+    /**
+     * Highest cost in [minCost, maxCost] whose hash time on this machine stays within
+     * {@code targetMillis}; never lower than {@code minCost}
+     */
+    public static int calibrate(long targetMillis, int minCost, int maxCost) {
+        timeHash(4); // warm up the JIT before measuring
+        int cost = minCost;
+        long elapsed = timeHash(cost);
+        // each extra round doubles the work, so stop once the next cost would overshoot
+        while (cost < maxCost && elapsed * 2 <= targetMillis) {
+            cost++;
+            elapsed = timeHash(cost);
+        }
+        logger.info("Calibrated BCrypt cost {} ({} ms per hash, target {} ms)", cost, elapsed, targetMillis);
+        return cost;
+    }
+
+    /**
+     * Best of a few runs, in milliseconds
+     */
+    static long timeHash(int cost) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_RUNS; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration-password");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1_000_000;
+    }
+
+    /**
+     * Cost encoded in a BCrypt hash, or -1 if it is not one
+     */
+    static int costOf(String encodedPassword) {
+        if (encodedPassword == null) {
+            return -1;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : -1;
+    }
+
+    /**
+     * BCrypt encoder for an operator-chosen cost: hashes above it are moved down as
+     * well as hashes below it moved up
+     */
+    private static final class PinnedCostBCryptPasswordEncoder extends BCryptPasswordEncoder {
+        private final int cost;
+
+        PinnedCostBCryptPasswordEncoder(int cost) {
+            super(cost);
+            this.cost = cost;
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            int stored = costOf(encodedPassword);
+            return stored != -1 && stored != cost;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.soul.shared.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing and verification on a small dedicated pool instead of
+ * the request threads.
+ * <p>
+ * The pool has a fixed size and a bounded queue. When both are full, or a caller
+ * would wait longer than the configured timeout, the call fails fast with the
+ * exception from the {@code overloaded} supplier ({@link OverloadedException} by
+ * default), which each application turns into a 429. A login burst then costs at
+ * most {@code threads} cores and never ties up the Tomcat threads that serve the catalog.
+ * <p>
+ * Not a component: the storefront and the API each declare it as a bean from their
+ * {@code app.auth.hash-*} properties. The pool is stopped by {@link #shutdown()}.
+ */
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final Supplier<? extends RuntimeException> overloaded;
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final long timeoutMs;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final Latency queueWait = new Latency();
+    private final Latency hashTime = new Latency();
+
+    /**
+     * @param threads pool size; 0 means one thread per available core
+     */
+    public PasswordHashingService(PasswordEncoder passwordEncoder, int threads, int queueCapacity, long timeoutMs) {
+        this(passwordEncoder, threads, queueCapacity, timeoutMs, OverloadedException::new);
+    }
+
+    /**
+     * @param threads    pool size; 0 means one thread per available core
+     * @param overloaded exception to throw when the pool is saturated or the wait times out
+     */
+    public PasswordHashingService(PasswordEncoder passwordEncoder, int threads, int queueCapacity, long timeoutMs,
+                                  Supplier<? extends RuntimeException> overloaded) {
+        this.passwordEncoder = passwordEncoder;
+        this.overloaded = overloaded;
+        this.queueCapacity = queueCapacity;
+        this.timeoutMs = timeoutMs;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.prestartAllCoreThreads();
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Hash a raw password on the hashing pool
+     */
+    public String encode(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Verify a raw password against a stored hash on the hashing pool
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Whether a verified hash should be re-encoded with the current scheme and cost.
+     * Only parses the hash, so it runs on the caller's thread.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    public Stats getStats() {
+        return new Stats(
+                executor.getMaximumPoolSize(),
+                executor.getActiveCount(),
+                executor.getQueue().size(),
+                queueCapacity,
+                completed.sum(),
+                rejected.sum(),
+                timedOut.sum(),
+                queueWait.averageMillis(),
+                queueWait.maxMillis(),
+                hashTime.averageMillis(),
+                hashTime.maxMillis()
+        );
+    }
+
+    private <T> T submit(Callable<T> work) {
+        long enqueuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                queueWait.record(startedAt - enqueuedAt);
+                try {
+                    return work.call();
+                } finally {
+                    hashTime.record(System.nanoTime() - startedAt);
+                    completed.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw overloaded.get();
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.increment();
+            throw overloaded.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /**
+     * Queue depth, throughput, rejections and latency of the hashing pool
+     */
+    public record Stats(int threads, int active, int queued, int queueCapacity,
+                        long completed, long rejected, long timedOut,
+                        double avgQueueWaitMs, double maxQueueWaitMs,
+                        double avgHashMs, double maxHashMs) {
+    }
+
+    /**
+     * Default overload signal: the hashing pool is saturated and the caller should answer 429
+     */
+    public static class OverloadedException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        public OverloadedException() {
+            super("Too many authentication requests, please retry shortly");
+        }
+    }
+
+    private static final class Latency {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        double averageMillis() {
+            long n = count.sum();
+            return n == 0 ? 0 : totalNanos.sum() / (n * 1_000_000.0);
+        }
+
+        double maxMillis() {
+            return maxNanos.get() / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.soul.shared.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordEncoderFactoryTest {
+
+    private static final String PASSWORD = "correct horse";
+
+    @Test
+    void pinnedCostRehashesStoredHashesDownAsWellAsUp() {
+        PasswordEncoder pinned = PasswordEncoderFactory.create(5, 100, 4, 14);
+
+        String stronger = "{bcrypt}" + new BCryptPasswordEncoder(6).encode(PASSWORD);
+        String weaker = "{bcrypt}" + new BCryptPasswordEncoder(4).encode(PASSWORD);
+        String current = pinned.encode(PASSWORD);
+
+        assertTrue(pinned.matches(PASSWORD, stronger));
+        assertTrue(pinned.upgradeEncoding(stronger));
+        assertTrue(pinned.upgradeEncoding(weaker));
+        assertFalse(pinned.upgradeEncoding(current));
+
+        // a downgraded hash is written at the pinned cost and still verifies
+        String rehashed = pinned.encode(PASSWORD);
+        assertEquals(5, PasswordEncoderFactory.costOf(rehashed.substring("{bcrypt}".length())));
+        assertTrue(pinned.matches(PASSWORD, rehashed));
+    }
+
+    @Test
+    void calibratedCostOnlyRehashesUpward() {
+        PasswordEncoder calibrated = PasswordEncoderFactory.delegating(5);
+
+        assertFalse(calibrated.upgradeEncoding("{bcrypt}" + new BCryptPasswordEncoder(6).encode(PASSWORD)));
+        assertTrue(calibrated.upgradeEncoding("{bcrypt}" + new BCryptPasswordEncoder(4).encode(PASSWORD)));
+        assertFalse(calibrated.upgradeEncoding(calibrated.encode(PASSWORD)));
+    }
+
+    @Test
+    void unprefixedHashesVerifyAndAreRehashed() {
+        String bare = new BCryptPasswordEncoder(5).encode(PASSWORD);
+        for (PasswordEncoder encoder : new PasswordEncoder[]{
+                PasswordEncoderFactory.pinned(5), PasswordEncoderFactory.delegating(5)}) {
+            assertTrue(encoder.matches(PASSWORD, bare));
+            assertTrue(encoder.upgradeEncoding(bare));
+        }
+    }
+
+    @Test
+    void readsTheCostOfABcryptHash() {
+        assertEquals(12, PasswordEncoderFactory.costOf("$2a$12$abcdefghijklmnopqrstuv"));
+        assertEquals(-1, PasswordEncoderFactory.costOf("plain"));
+        assertEquals(-1, PasswordEncoderFactory.costOf(null));
+    }
+}
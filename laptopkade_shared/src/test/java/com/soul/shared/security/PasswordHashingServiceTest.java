@@ -0,0 +1,98 @@
+package com.soul.shared.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHashingServiceTest {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void rejectsWithTheConfiguredExceptionWhenThePoolIsFull() throws Exception {
+        PasswordHashingService service = new PasswordHashingService(blockingEncoder(), 1, 1, 10_000,
+                () -> new IllegalStateException("busy"));
+        try {
+            Future<String> running = callers.submit(() -> service.encode("first"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<String> queued = callers.submit(() -> service.encode("second"));
+            awaitQueued(service);
+
+            IllegalStateException e = assertThrows(IllegalStateException.class, () -> service.encode("third"));
+            assertEquals("busy", e.getMessage());
+
+            release.countDown();
+            assertEquals("hash:first", running.get(5, TimeUnit.SECONDS));
+            assertEquals("hash:second", queued.get(5, TimeUnit.SECONDS));
+            PasswordHashingService.Stats stats = service.getStats();
+            assertEquals(2L, stats.completed());
+            assertEquals(1L, stats.rejected());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void timesOutWithTheDefaultExceptionWhenHashingTakesTooLong() throws Exception {
+        PasswordHashingService service = new PasswordHashingService(blockingEncoder(), 1, 4, 50);
+        try {
+            assertThrows(PasswordHashingService.OverloadedException.class, () -> service.matches("pw", "hash:pw"));
+            assertEquals(1L, service.getStats().timedOut());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    private static void awaitQueued(PasswordHashingService service) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (service.getStats().queued() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Encoder whose work blocks until the test releases it
+     */
+    private PasswordEncoder blockingEncoder() {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                await();
+                return "hash:" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                await();
+                return encodedPassword.equals("hash:" + rawPassword);
+            }
+
+            private void await() {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+    }
+}